@@ -0,0 +1,281 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ServerSocketFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mockwebserver3.Dispatcher;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockResponseBody;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import okhttp3.OkHttpClient;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/**
+ * Measures the request pipeline of {@link SwaggerHubClient} against an in-process MockWebServer,
+ * from a definition the size of {@code TestAPI.json} up to a 50 MB one.
+ *
+ * <p>Run with {@code gradle jmh}; allocation profiling ({@code -prof gc}) is enabled by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwaggerHubClientBenchmark {
+    /** Size of the definition in bytes. */
+    @Param({"5120", "1048576", "52428800"})
+    private int payloadBytes;
+
+    /** Server answering every download with the definition and every upload with 201. */
+    private MockWebServer server;
+
+    /** Client under test. */
+    private SwaggerHubClient client;
+
+    /** Request downloading the definition. */
+    private SwaggerHubRequest download;
+
+    /** Request uploading the in-memory definition. */
+    private SwaggerHubRequest upload;
+
+    /** Request streaming the definition file. */
+    private SwaggerHubRequest uploadFile;
+
+    /** Definition file streamed by uploads and written by downloads. */
+    private Path definitionFile;
+
+    /**
+     * Starts the server and prepares the requests.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String definition = definition(payloadBytes);
+        ByteString body = ByteString.encodeUtf8(definition);
+
+        server = new MockWebServer();
+        // recorded requests must not keep the uploaded definitions alive
+        server.setBodyLimit(0);
+        // without TCP_NODELAY delayed ACKs add ~40 ms to every small response
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(
+                new Dispatcher() {
+                    @Override
+                    public MockResponse dispatch(final RecordedRequest request) {
+                        if ("POST".equals(request.getMethod())) {
+                            return new MockResponse.Builder().code(201).build();
+                        }
+                        return new MockResponse.Builder()
+                                .addHeader("Content-Type", "application/json")
+                                .body(new ByteStringBody(body))
+                                .build();
+                    }
+                });
+        server.start();
+
+        client =
+                SwaggerHubClient.builder()
+                        .host(server.url("/").host())
+                        .port(server.getPort())
+                        .protocol("http")
+                        .token("token")
+                        .client(new OkHttpClient())
+                        .build();
+        download =
+                SwaggerHubRequest.builder()
+                        .owner("swagger-hub")
+                        .api("test-api")
+                        .version("1.0.0")
+                        .build();
+        upload =
+                SwaggerHubRequest.builder()
+                        .owner("swagger-hub")
+                        .api("test-api")
+                        .version("1.0.0")
+                        .oas("3.0.0")
+                        .swagger(definition)
+                        .build();
+        definitionFile = Files.createTempFile("swaggerhub-benchmark", ".json");
+        Files.writeString(definitionFile, definition, StandardCharsets.UTF_8);
+        uploadFile =
+                SwaggerHubRequest.builder()
+                        .owner("swagger-hub")
+                        .api("test-api")
+                        .version("1.0.0")
+                        .oas("3.0.0")
+                        .definitionFile(definitionFile)
+                        .build();
+    }
+
+    /**
+     * Drops the requests recorded during an iteration.
+     *
+     * @throws InterruptedException never, the queue is only polled
+     */
+    @TearDown(Level.Iteration)
+    public void drainRecordedRequests() throws InterruptedException {
+        while (server.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+            // discard
+        }
+    }
+
+    /**
+     * Stops the server and deletes the definition file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+        client.getClient().connectionPool().evictAll();
+        Files.deleteIfExists(definitionFile);
+    }
+
+    /**
+     * Downloads the definition into memory.
+     *
+     * @return the definition
+     */
+    @Benchmark
+    public String getDefinition() {
+        return client.getDefinition(download);
+    }
+
+    /**
+     * Streams the definition into a file.
+     *
+     * @return the download result
+     */
+    @Benchmark
+    public DownloadResult downloadDefinition() {
+        return client.downloadDefinition(download, definitionFile);
+    }
+
+    /** Uploads the in-memory definition. */
+    @Benchmark
+    public void saveDefinition() {
+        client.saveDefinition(upload);
+    }
+
+    /** Uploads the definition streamed from its file. */
+    @Benchmark
+    public void saveDefinitionFromFile() {
+        client.saveDefinition(uploadFile);
+    }
+
+    /**
+     * Builds a JSON definition of the given size out of repeated path items.
+     *
+     * @param size the size in bytes
+     * @return the definition
+     */
+    private static String definition(final int size) {
+        String head =
+                "{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"Benchmark\",\"version\":\"1.0.0\"},"
+                        + "\"paths\":{";
+        StringBuilder json = new StringBuilder(size + 256).append(head);
+        for (int i = 0; json.length() < size - 2; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"/items/")
+                    .append(i)
+                    .append("\":{\"get\":{\"summary\":\"Returns item ")
+                    .append(i)
+                    .append("\",\"responses\":{\"200\":{\"description\":\"OK\"}}}}");
+        }
+        return json.append("}}").toString();
+    }
+
+    /** Creates server sockets whose connections send small writes immediately. */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(final int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(final int port, final int backlog) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(
+                final int port, final int backlog, final InetAddress address) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Response body writing a shared byte string without copying it first. */
+    private static final class ByteStringBody implements MockResponseBody {
+        /** The body. */
+        private final ByteString bytes;
+
+        ByteStringBody(final ByteString bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long getContentLength() {
+            return bytes.size();
+        }
+
+        @Override
+        public void writeTo(final BufferedSink sink) throws IOException {
+            sink.write(bytes);
+        }
+    }
+}
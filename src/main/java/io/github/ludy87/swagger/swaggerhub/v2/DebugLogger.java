@@ -15,16 +15,64 @@
  */
 package io.github.ludy87.swagger.swaggerhub.v2;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-/** Utility class that writes diagnostic messages to the console and to {@link #LOG_FILE}. */
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+/**
+ * Utility class that writes diagnostic messages to the Gradle log and to a debug log file.
+ *
+ * <p>Messages are handed to a single writer thread through a bounded queue, so callers never wait
+ * for the file system. The writer appends them in batches to one open file, which defaults to
+ * {@value #LOG_FILE} and can be changed with the {@code swaggerhub.debug.logFile} system property
+ * or {@link #setLogFile(Path)}. {@link #flush()} writes all pending messages and closes the file;
+ * the SwaggerHub build service calls it when the build finishes and then restores the default file
+ * with {@link #resetLogFile()}. Messages arriving while the queue is full are dropped, counted in
+ * the file and reported as a warning.
+ */
 public final class DebugLogger {
 
     /** Name of the file that collects the debug output. */
     private static final String LOG_FILE = "test-output.log";
 
+    /** Maximum number of pending messages. */
+    private static final int QUEUE_CAPACITY = 8192;
+
+    /** Maximum number of messages written per batch. */
+    private static final int BATCH_SIZE = 512;
+
+    /** How long {@link #flush()} waits for the writer. */
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    /** Logger receiving the messages as well. */
+    private static final Logger LOGGER = Logging.getLogger(DebugLogger.class);
+
+    /** Pending messages and flush requests. */
+    private static final BlockingQueue<Object> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /** Messages dropped because the queue was full, not yet reported in the file. */
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    /** File the messages are appended to. */
+    private static volatile Path logFile = defaultLogFile();
+
+    /** The writer thread, started with the first message. */
+    private static Thread writerThread;
+
     private DebugLogger() {
         throw new AssertionError("Utility class");
     }
@@ -35,11 +83,145 @@ public final class DebugLogger {
      * @param message the message to log
      */
     public static void info(final String message) {
-        System.out.println(message);
-        try (PrintWriter out = new PrintWriter(new FileWriter(LOG_FILE, true))) {
-            out.println(message);
-        } catch (IOException exception) {
-            exception.printStackTrace();
+        LOGGER.info(message);
+        ensureWriterStarted();
+        if (!QUEUE.offer(message)) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sets the file the following messages are appended to.
+     *
+     * @param file the debug log file
+     */
+    public static void setLogFile(final Path file) {
+        logFile = file;
+    }
+
+    /**
+     * Restores the default debug log file, so a file set for one build does not leak into the next
+     * build of the same Gradle daemon.
+     */
+    public static void resetLogFile() {
+        logFile = defaultLogFile();
+    }
+
+    /**
+     * Writes all pending messages and closes the debug log file. The file is reopened by the next
+     * message.
+     */
+    public static void flush() {
+        synchronized (DebugLogger.class) {
+            if (writerThread == null) {
+                return;
+            }
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            QUEUE.put(done);
+            if (!done.await(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Timed out flushing the debug log {}", logFile);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path defaultLogFile() {
+        return Paths.get(System.getProperty("swaggerhub.debug.logFile", LOG_FILE));
+    }
+
+    private static synchronized void ensureWriterStarted() {
+        if (writerThread == null) {
+            writerThread = new Thread(DebugLogger::writeLoop, "swaggerhub-debug-log");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    /** Writes queued messages in batches until the JVM exits. */
+    private static void writeLoop() {
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        BufferedWriter out = null;
+        Path openFile = null;
+        while (true) {
+            try {
+                batch.add(QUEUE.take());
+                QUEUE.drainTo(batch, BATCH_SIZE - 1);
+
+                List<CountDownLatch> flushRequests = new ArrayList<>();
+                for (Object item : batch) {
+                    if (item instanceof CountDownLatch) {
+                        flushRequests.add((CountDownLatch) item);
+                        continue;
+                    }
+                    Path target = logFile;
+                    if (out == null || !target.equals(openFile)) {
+                        close(out);
+                        out = open(target);
+                        openFile = target;
+                    }
+                    writeDropped(out);
+                    out.write((String) item);
+                    out.newLine();
+                }
+
+                if (!flushRequests.isEmpty()) {
+                    if (out != null) {
+                        writeDropped(out);
+                    }
+                    close(out);
+                    out = null;
+                    flushRequests.forEach(CountDownLatch::countDown);
+                } else if (out != null && QUEUE.isEmpty()) {
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                close(out);
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("Cannot write the debug log {}: {}", openFile, e.getMessage());
+                close(out);
+                out = null;
+                batch.stream()
+                        .filter(CountDownLatch.class::isInstance)
+                        .forEach(item -> ((CountDownLatch) item).countDown());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static BufferedWriter open(final Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static void writeDropped(final BufferedWriter out) throws IOException {
+        long dropped = DROPPED.getAndSet(0);
+        if (dropped > 0) {
+            LOGGER.warn(
+                    "{} debug messages were not written to {}, the queue was full",
+                    dropped,
+                    logFile);
+            out.write("[" + dropped + " debug messages dropped, the queue was full]");
+            out.newLine();
+        }
+    }
+
+    private static void close(final BufferedWriter out) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOGGER.warn("Cannot close the debug log: {}", e.getMessage());
         }
     }
 }
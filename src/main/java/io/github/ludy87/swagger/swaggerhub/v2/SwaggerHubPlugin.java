@@ -34,8 +34,12 @@ package io.github.ludy87.swagger.swaggerhub.v2;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 
+import io.github.ludy87.swagger.swaggerhub.v2.tasks.BatchDownloadTask;
+import io.github.ludy87.swagger.swaggerhub.v2.tasks.BatchUploadTask;
 import io.github.ludy87.swagger.swaggerhub.v2.tasks.DownloadTask;
+import io.github.ludy87.swagger.swaggerhub.v2.tasks.MirrorTask;
 import io.github.ludy87.swagger.swaggerhub.v2.tasks.SetDefaultVersion;
+import io.github.ludy87.swagger.swaggerhub.v2.tasks.SyncTask;
 import io.github.ludy87.swagger.swaggerhub.v2.tasks.UploadTask;
 
 /** Gradle plugin that registers tasks to interact with SwaggerHub. */
@@ -50,5 +54,9 @@ public class SwaggerHubPlugin implements Plugin<Project> {
         project.getTasks().register("swaggerhubDownload", DownloadTask.class);
         project.getTasks().register("swaggerhubUpload", UploadTask.class);
         project.getTasks().register("swaggerhubSetDefaultVersion", SetDefaultVersion.class);
+        project.getTasks().register("swaggerhubBatchDownload", BatchDownloadTask.class);
+        project.getTasks().register("swaggerhubBatchUpload", BatchUploadTask.class);
+        project.getTasks().register("swaggerhubSync", SyncTask.class);
+        project.getTasks().register("swaggerhubMirror", MirrorTask.class);
     }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import okhttp3.HttpUrl;
+
+/**
+ * One page of a SwaggerHub registry listing in the APIs.json format, as returned for the APIs of an
+ * owner and for the versions of an API. The listing is read with a streaming parser, so large pages
+ * are never held as a tree.
+ */
+@Getter
+@ToString
+public class ApiListing {
+    /** Shared factory creating the streaming parsers. */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** Offset of the first entry of this page. */
+    private final int offset;
+
+    /** Total number of entries of all pages, {@code -1} if SwaggerHub did not report it. */
+    private final int totalCount;
+
+    /** Entries of this page. */
+    private final List<Api> apis;
+
+    /**
+     * Creates a listing page.
+     *
+     * @param offset offset of the first entry
+     * @param totalCount total number of entries, {@code -1} if unknown
+     * @param apis entries of the page
+     */
+    public ApiListing(final int offset, final int totalCount, final List<Api> apis) {
+        this.offset = offset;
+        this.totalCount = totalCount;
+        this.apis = apis;
+    }
+
+    /**
+     * Reads a listing page.
+     *
+     * @param in the listing in the APIs.json format
+     * @return the listing page
+     * @throws IOException if the listing cannot be read or is malformed
+     */
+    public static ApiListing parse(final InputStream in) throws IOException {
+        int offset = 0;
+        int totalCount = -1;
+        List<Api> apis = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("API listing is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("offset".equals(field) && value.isNumeric()) {
+                    offset = parser.getIntValue();
+                } else if ("totalCount".equals(field) && value.isNumeric()) {
+                    totalCount = parser.getIntValue();
+                } else if ("apis".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        apis.add(parseApi(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new ApiListing(offset, totalCount, apis);
+    }
+
+    /**
+     * Reads a single entry, positioned on its start.
+     *
+     * @param parser the parser
+     * @return the entry
+     * @throws IOException if the entry cannot be read
+     */
+    private static Api parseApi(final JsonParser parser) throws IOException {
+        Api.ApiBuilder api = Api.builder();
+        String url = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("name".equals(field) && value == JsonToken.VALUE_STRING) {
+                api.name(parser.getText());
+            } else if ("properties".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    String type = null;
+                    String propertyValue = null;
+                    String propertyUrl = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = parser.currentName();
+                        parser.nextToken();
+                        if ("type".equals(name)) {
+                            type = parser.getValueAsString();
+                        } else if ("value".equals(name)) {
+                            propertyValue = parser.getValueAsString();
+                        } else if ("url".equals(name)) {
+                            propertyUrl = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if ("Swagger".equals(type)) {
+                        url = propertyUrl;
+                    } else if ("X-Version".equals(type)) {
+                        api.version(propertyValue);
+                    } else if ("X-Modified".equals(type)) {
+                        api.modified(propertyValue);
+                    } else if ("X-Published".equals(type)) {
+                        api.published(Boolean.parseBoolean(propertyValue));
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return api.url(url).build();
+    }
+
+    /** An API, or a version of an API, of a listing. */
+    @Getter
+    @Builder
+    @ToString
+    public static class Api {
+        /** Display name of the API. */
+        private final String name;
+
+        /** URL of the definition, {@code .../apis/{owner}/{api}/{version}}. */
+        private final String url;
+
+        /** Version of the entry. */
+        private final String version;
+
+        /** Last modification of the version, as reported by SwaggerHub. */
+        private final String modified;
+
+        /** Whether the version is published. */
+        private final boolean published;
+
+        /**
+         * Returns the API identifier, taken from the definition URL because the display name may
+         * differ from it.
+         *
+         * @return the API identifier, or the display name if the listing has no definition URL
+         */
+        public String getApi() {
+            HttpUrl httpUrl = url == null ? null : HttpUrl.parse(url);
+            if (httpUrl != null) {
+                List<String> segments = httpUrl.pathSegments();
+                int apis = segments.lastIndexOf("apis");
+                if (apis >= 0 && apis + 2 < segments.size()) {
+                    return segments.get(apis + 2);
+                }
+            }
+            return name;
+        }
+
+        /**
+         * Returns the version, taken from the definition URL if the listing has no {@code
+         * X-Version} property.
+         *
+         * @return the version, or {@code null} if unknown
+         */
+        public String getVersion() {
+            if (version != null) {
+                return version;
+            }
+            HttpUrl httpUrl = url == null ? null : HttpUrl.parse(url);
+            if (httpUrl != null) {
+                List<String> segments = httpUrl.pathSegments();
+                int apis = segments.lastIndexOf("apis");
+                if (apis >= 0 && apis + 3 < segments.size()) {
+                    return segments.get(apis + 3);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gradle.api.logging.Logging;
+import org.slf4j.Logger;
+
+import lombok.Getter;
+
+/**
+ * Content-addressed store of downloaded API definitions, shared by all builds of a machine.
+ *
+ * <p>Definition bodies are stored once per SHA-256 hash under {@code blobs/}, and one small entry
+ * per definition key under {@code entries/} points to its body together with the ETag and
+ * Last-Modified validators. An entry is served without a network call while it is younger than the
+ * TTL, or when it was already fetched in the current build; otherwise it is revalidated by the
+ * loader. Bodies are evicted least recently used first once the store grows beyond its size limit.
+ * Bodies handed out by this instance are never evicted by it, since callers read them after the
+ * lookup, and bodies used within the last minute are left to other builds sharing the store. The
+ * store may therefore exceed its limit until a later build evicts them.
+ *
+ * <p>Concurrent lookups of the same key within the build share one load. In offline mode entries
+ * are served regardless of their age and the loader is never called.
+ */
+public class DefinitionCache {
+    /** Logger instance for the cache. */
+    private static final Logger LOGGER = Logging.getLogger(DefinitionCache.class);
+
+    private static final String KEY = "key";
+    private static final String BLOB = "blob";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String FETCHED_AT = "fetchedAt";
+
+    /** Default age below which bodies are not evicted. */
+    private static final Duration DEFAULT_EVICTION_GRACE = Duration.ofMinutes(1);
+
+    /** Directory of the definition bodies. */
+    private final Path blobs;
+
+    /** Directory of the entries. */
+    private final Path entries;
+
+    /** Directory of partially written bodies. */
+    private final Path temp;
+
+    /** Age up to which entries are served without revalidation. */
+    private final Duration ttl;
+
+    /** Maximum total size of the stored bodies in bytes. */
+    private final long maxBytes;
+
+    /** Whether entries are served without ever loading them. */
+    private final boolean offline;
+
+    /** Age below which bodies are not evicted, as another build may be reading them. */
+    private final Duration evictionGrace;
+
+    /** Bodies handed out by this instance, i.e. in the current build, never evicted by it. */
+    private final Set<Path> pinned = ConcurrentHashMap.newKeySet();
+
+    /** Keys loaded or revalidated by this instance, i.e. in the current build. */
+    private final Set<String> fetched = ConcurrentHashMap.newKeySet();
+
+    /** Loads in progress by key. */
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param root the cache directory
+     * @param ttl age up to which entries are served without revalidation
+     * @param maxBytes maximum total size of the stored bodies in bytes
+     */
+    public DefinitionCache(final Path root, final Duration ttl, final long maxBytes) {
+        this(root, ttl, maxBytes, false);
+    }
+
+    /**
+     * Creates a cache in the given directory, optionally in offline mode.
+     *
+     * @param root the cache directory
+     * @param ttl age up to which entries are served without revalidation
+     * @param maxBytes maximum total size of the stored bodies in bytes
+     * @param offline {@code true} to serve only cached entries and never load
+     */
+    public DefinitionCache(
+            final Path root, final Duration ttl, final long maxBytes, final boolean offline) {
+        this(root, ttl, maxBytes, offline, DEFAULT_EVICTION_GRACE);
+    }
+
+    /**
+     * Creates a cache with a custom eviction grace period.
+     *
+     * @param root the cache directory
+     * @param ttl age up to which entries are served without revalidation
+     * @param maxBytes maximum total size of the stored bodies in bytes
+     * @param offline {@code true} to serve only cached entries and never load
+     * @param evictionGrace age below which bodies are not evicted
+     */
+    DefinitionCache(
+            final Path root,
+            final Duration ttl,
+            final long maxBytes,
+            final boolean offline,
+            final Duration evictionGrace) {
+        this.offline = offline;
+        this.evictionGrace = evictionGrace;
+        blobs = root.resolve("blobs");
+        entries = root.resolve("entries");
+        temp = root.resolve("tmp");
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Loads a definition from SwaggerHub into the cache, or revalidates a stale entry. */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Loads the definition.
+         *
+         * @param stale the stale entry whose validators should be sent, or {@code null}
+         * @return the loaded entry, or {@code stale} if SwaggerHub reported it unchanged
+         * @throws IOException if the definition cannot be loaded or stored
+         */
+        Entry load(Entry stale) throws IOException;
+    }
+
+    /**
+     * Returns the entry for a key, loading it only if it is missing or stale.
+     *
+     * @param key identifies the definition
+     * @param loader loads or revalidates the definition
+     * @return the current entry
+     * @throws IOException if the loader fails, or the key was never cached and the cache is offline
+     */
+    public Entry get(final String key, final Loader loader) throws IOException {
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            LOGGER.debug("Waiting for the download of {} in progress", key);
+            return await(running);
+        }
+        try {
+            Entry entry = load(key, loader);
+            load.complete(entry);
+            return entry;
+        } catch (IOException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Stores a definition body and creates an entry pointing to it. The entry is only persisted
+     * once it is returned from a {@link Loader}.
+     *
+     * @param key identifies the definition
+     * @param body the definition body, read to the end but not closed
+     * @param eTag the ETag validator, may be {@code null}
+     * @param lastModified the Last-Modified validator, may be {@code null}
+     * @return the new entry
+     * @throws IOException if the body cannot be stored
+     */
+    public Entry store(
+            final String key, final InputStream body, final String eTag, final String lastModified)
+            throws IOException {
+        Files.createDirectories(temp);
+        Files.createDirectories(blobs);
+        Path part = Files.createTempFile(temp, "blob", ".part");
+        try {
+            MessageDigest digest = Hashing.sha256();
+            try (InputStream in = new DigestInputStream(body, digest)) {
+                Files.copy(in, part, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = Hashing.hex(digest);
+            Path blob = blobs.resolve(hash);
+            try {
+                Files.move(part, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                LOGGER.debug("Definition body {} already stored", hash);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, blob, StandardCopyOption.REPLACE_EXISTING);
+            }
+            pinned.add(blob);
+            return new Entry(key, blob, eTag, lastModified, Instant.now());
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private Entry load(final String key, final Loader loader) throws IOException {
+        Entry cached = read(key);
+        if (offline) {
+            if (cached == null) {
+                throw new IOException(
+                        key + " was never downloaded before and Gradle runs in offline mode");
+            }
+            LOGGER.info("Serving {} from the definition cache in offline mode", key);
+            pin(cached.getBlob());
+            return cached;
+        }
+        if (cached != null
+                && (fetched.contains(key)
+                        || cached.getFetchedAt().plus(ttl).isAfter(Instant.now()))) {
+            LOGGER.info("Serving {} from the definition cache", key);
+            pin(cached.getBlob());
+            return cached;
+        }
+
+        Entry loaded = loader.load(cached);
+        if (loaded == cached) {
+            loaded =
+                    new Entry(
+                            key,
+                            cached.getBlob(),
+                            cached.getETag(),
+                            cached.getLastModified(),
+                            Instant.now());
+        }
+        write(loaded);
+        pin(loaded.getBlob());
+        fetched.add(key);
+        evict();
+        return loaded;
+    }
+
+    /**
+     * Reads the entry of a key, ignoring entries whose body was evicted.
+     *
+     * @param key identifies the definition
+     * @return the entry, or {@code null} if there is none
+     */
+    public Entry read(final String key) {
+        Path file = entries.resolve(Hashing.sha256(key));
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.debug("Ignoring unreadable cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+        if (!key.equals(properties.getProperty(KEY))) {
+            return null;
+        }
+        Path blob = blobs.resolve(properties.getProperty(BLOB, ""));
+        if (!Files.isRegularFile(blob)) {
+            return null;
+        }
+        return new Entry(
+                key,
+                blob,
+                properties.getProperty(ETAG),
+                properties.getProperty(LAST_MODIFIED),
+                Instant.ofEpochMilli(Long.parseLong(properties.getProperty(FETCHED_AT, "0"))));
+    }
+
+    private void write(final Entry entry) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY, entry.getKey());
+        properties.setProperty(BLOB, entry.getBlob().getFileName().toString());
+        properties.setProperty(FETCHED_AT, String.valueOf(entry.getFetchedAt().toEpochMilli()));
+        if (entry.getETag() != null) {
+            properties.setProperty(ETAG, entry.getETag());
+        }
+        if (entry.getLastModified() != null) {
+            properties.setProperty(LAST_MODIFIED, entry.getLastModified());
+        }
+        Files.createDirectories(entries);
+        Files.createDirectories(temp);
+        Path part = Files.createTempFile(temp, "entry", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                properties.store(out, "SwaggerHub definition cache entry");
+            }
+            Files.move(
+                    part,
+                    entries.resolve(Hashing.sha256(entry.getKey())),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * Marks a body as used, so neither this instance nor other builds evict it while it is read.
+     *
+     * @param blob the body
+     */
+    private void pin(final Path blob) {
+        pinned.add(blob);
+        touch(blob);
+    }
+
+    /**
+     * Deletes the least recently used bodies until the store fits its size limit. Pinned bodies and
+     * bodies used within the grace period are skipped.
+     */
+    private void evict() {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(blobs)) {
+            files = stream.collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException e) {
+            LOGGER.debug("Cannot list definition cache: {}", e.getMessage());
+            return;
+        }
+        long total = files.stream().mapToLong(DefinitionCache::size).sum();
+        if (total <= maxBytes) {
+            return;
+        }
+        files.sort(Comparator.comparing(DefinitionCache::lastUsed));
+        FileTime graceStart = FileTime.from(Instant.now().minus(evictionGrace));
+        for (Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (pinned.contains(file) || lastUsed(file).compareTo(graceStart) > 0) {
+                continue;
+            }
+            long size = size(file);
+            try {
+                Files.deleteIfExists(file);
+                total -= size;
+                LOGGER.debug("Evicted {} from the definition cache", file.getFileName());
+            } catch (IOException e) {
+                LOGGER.debug("Cannot evict {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private static Entry await(final CompletableFuture<Entry> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a download in progress", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void touch(final Path blob) {
+        try {
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            LOGGER.debug("Cannot update access time of {}: {}", blob, e.getMessage());
+        }
+    }
+
+    private static long size(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastUsed(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /** A cached definition: its body and the validators it was served with. */
+    @Getter
+    public static final class Entry {
+        /** Key of the definition. */
+        private final String key;
+
+        /** File holding the definition body. */
+        private final Path blob;
+
+        /** ETag validator, may be {@code null}. */
+        private final String eTag;
+
+        /** Last-Modified validator, may be {@code null}. */
+        private final String lastModified;
+
+        /** When the entry was last loaded or revalidated. */
+        private final Instant fetchedAt;
+
+        Entry(
+                final String key,
+                final Path blob,
+                final String eTag,
+                final String lastModified,
+                final Instant fetchedAt) {
+            this.key = key;
+            this.blob = blob;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.fetchedAt = fetchedAt;
+        }
+
+        /**
+         * Reads the definition body.
+         *
+         * @return the definition
+         * @throws UncheckedIOException if the body cannot be read
+         */
+        public String read() {
+            try {
+                return Files.readString(blob, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
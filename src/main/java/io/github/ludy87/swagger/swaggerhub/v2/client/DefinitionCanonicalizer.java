@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Rewrites an API definition into its canonical form: object keys sorted, insignificant whitespace
+ * and YAML comments removed. JSON is written without any whitespace, YAML in block style with
+ * quotes only where they are needed.
+ *
+ * <p>The source is read with a streaming parser straight into a compact tree of sorted maps, lists
+ * and scalar tokens, which is then streamed to the target. Neither the source text nor the output
+ * is held in memory, so the tree is the only copy of the document. Scalars keep their original
+ * notation, e.g. {@code 1.0} stays {@code 1.0}, so the canonical form is stable across runs and
+ * suitable for content hashes.
+ */
+public final class DefinitionCanonicalizer {
+    private DefinitionCanonicalizer() {}
+
+    /**
+     * Writes the canonical form of a definition in its own format.
+     *
+     * @param in the definition, closed when done
+     * @param yaml whether the definition is YAML, otherwise JSON
+     * @param out receives the canonical form, flushed but not closed
+     * @throws IOException if the definition cannot be read or is malformed
+     */
+    public static void canonicalize(
+            final InputStream in, final boolean yaml, final OutputStream out) throws IOException {
+        canonicalize(in, yaml, out, yaml);
+    }
+
+    /**
+     * Writes the canonical form of a definition, converting it between JSON and YAML if needed.
+     *
+     * @param in the definition, closed when done
+     * @param yaml whether the definition is YAML, otherwise JSON
+     * @param out receives the canonical form, flushed but not closed
+     * @param yamlOut whether the canonical form is written as YAML, otherwise JSON
+     * @throws IOException if the definition cannot be read or is malformed
+     */
+    public static void canonicalize(
+            final InputStream in, final boolean yaml, final OutputStream out, final boolean yamlOut)
+            throws IOException {
+        Object document;
+        try (JsonParser parser = DefinitionConverter.factory(yaml).createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("API definition is empty");
+            }
+            document = read(parser, token);
+        }
+        try (JsonGenerator generator = DefinitionConverter.generator(out, yamlOut)) {
+            write(generator, document);
+        }
+    }
+
+    /**
+     * Reads the value starting at the current token.
+     *
+     * @param parser the parser, positioned on the first token of the value
+     * @param token the current token
+     * @return a sorted map, a list or a {@link Scalar}
+     * @throws IOException if the value cannot be read
+     */
+    private static Object read(final JsonParser parser, final JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                Map<String, Object> object = new TreeMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    object.put(name, read(parser, parser.nextToken()));
+                }
+                return object;
+            case START_ARRAY:
+                List<Object> array = new ArrayList<>();
+                JsonToken next;
+                while ((next = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    array.add(read(parser, next));
+                }
+                return array;
+            case VALUE_STRING:
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_EMBEDDED_OBJECT:
+                return new Scalar(token, parser.getText());
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                return new Scalar(token, null);
+            default:
+                throw new IOException("Unexpected " + token + " at " + parser.currentLocation());
+        }
+    }
+
+    /**
+     * Writes a value read by {@link #read}.
+     *
+     * @param generator the generator
+     * @param value the value
+     * @throws IOException if the value cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    private static void write(final JsonGenerator generator, final Object value)
+            throws IOException {
+        if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> field : ((Map<String, Object>) value).entrySet()) {
+                generator.writeFieldName(field.getKey());
+                write(generator, field.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object element : (List<Object>) value) {
+                write(generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            Scalar scalar = (Scalar) value;
+            switch (scalar.token) {
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    generator.writeNumber(scalar.text);
+                    break;
+                case VALUE_TRUE:
+                    generator.writeBoolean(true);
+                    break;
+                case VALUE_FALSE:
+                    generator.writeBoolean(false);
+                    break;
+                case VALUE_NULL:
+                    generator.writeNull();
+                    break;
+                default:
+                    generator.writeString(scalar.text);
+            }
+        }
+    }
+
+    /** A scalar value with its original notation. */
+    private static final class Scalar {
+        /** Token type of the value. */
+        private final JsonToken token;
+
+        /** Text of the value, {@code null} for booleans and {@code null}. */
+        private final String text;
+
+        /**
+         * Creates a scalar.
+         *
+         * @param token the token type
+         * @param text the text of the value
+         */
+        Scalar(final JsonToken token, final String text) {
+            this.token = token;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+
+/**
+ * Converts API definitions between JSON and YAML token by token. The parser of the source format
+ * feeds the generator of the target format directly, so no document tree is built and memory use
+ * does not grow with the size of the definition.
+ *
+ * <p>Numbers keep their exact value, e.g. {@code 1.10} is not shortened to {@code 1.1}. JSON is
+ * written pretty printed, YAML in block style with quotes only where they are needed. YAML comments
+ * are not carried over.
+ */
+public final class DefinitionConverter {
+    /** Factory for JSON parsers and generators. */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** Factory for YAML parsers and generators. */
+    private static final YAMLFactory YAML_FACTORY =
+            YAMLFactory.builder()
+                    .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                    .disable(YAMLGenerator.Feature.SPLIT_LINES)
+                    .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+                    .enable(YAMLGenerator.Feature.ALWAYS_QUOTE_NUMBERS_AS_STRINGS)
+                    .build();
+
+    private DefinitionConverter() {}
+
+    /**
+     * Tells whether a format names YAML.
+     *
+     * @param format the format, e.g. {@code json}, {@code yaml} or {@code yml}
+     * @return {@code true} for YAML
+     */
+    public static boolean isYaml(final String format) {
+        return "yaml".equalsIgnoreCase(format) || "yml".equalsIgnoreCase(format);
+    }
+
+    /**
+     * Tells whether a definition has to be converted between two formats.
+     *
+     * @param from the source format, {@code null} if it equals the target format
+     * @param to the target format
+     * @return {@code true} if exactly one of the formats is YAML
+     */
+    public static boolean needsConversion(final String from, final String to) {
+        return from != null && isYaml(from) != isYaml(to);
+    }
+
+    /**
+     * Converts a definition.
+     *
+     * @param in the definition, closed when done
+     * @param from the format of the definition
+     * @param out receives the converted definition, flushed but not closed
+     * @param to the target format
+     * @throws IOException if the definition cannot be read or is malformed
+     */
+    public static void convert(
+            final InputStream in, final String from, final OutputStream out, final String to)
+            throws IOException {
+        try (JsonParser parser = factory(isYaml(from)).createParser(in);
+                JsonGenerator generator = generator(out, isYaml(to))) {
+            if (!isYaml(to)) {
+                generator.useDefaultPrettyPrinter();
+            }
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEventExact(parser);
+            }
+        }
+    }
+
+    /**
+     * Returns the factory of a format.
+     *
+     * @param yaml whether the format is YAML
+     * @return the factory
+     */
+    public static JsonFactory factory(final boolean yaml) {
+        return yaml ? YAML_FACTORY : JSON_FACTORY;
+    }
+
+    /**
+     * Creates a generator that leaves the target open.
+     *
+     * @param out the target
+     * @param yaml whether YAML is written
+     * @return the generator
+     * @throws IOException if the generator cannot be created
+     */
+    static JsonGenerator generator(final OutputStream out, final boolean yaml) throws IOException {
+        return factory(yaml).createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Outcome of a conditional definition download. */
+@Getter
+@Builder
+@ToString
+public class DownloadResult {
+    /** Whether SwaggerHub answered {@code 304 Not Modified}. */
+    private final boolean notModified;
+
+    /** ETag validator returned by SwaggerHub. */
+    private final String eTag;
+
+    /** Last-Modified validator returned by SwaggerHub. */
+    private final String lastModified;
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** SHA-256 helpers shared by the definition cache, the upload state and the sync task. */
+public final class Hashing {
+    private static final int BUFFER_SIZE = 8192;
+
+    private Hashing() {}
+
+    /**
+     * Creates a SHA-256 digest.
+     *
+     * @return the digest
+     * @throws IllegalStateException if the JVM does not provide SHA-256
+     */
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Completes a digest and encodes it as lower case hex.
+     *
+     * @param digest the digest, reset afterwards
+     * @return the hex encoded hash
+     */
+    public static String hex(final MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes the SHA-256 hash of a string.
+     *
+     * @param value the string, hashed as UTF-8
+     * @return the hex encoded hash
+     */
+    public static String sha256(final String value) {
+        MessageDigest digest = sha256();
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        return hex(digest);
+    }
+
+    /**
+     * Computes the SHA-256 hash of a stream without holding it in memory.
+     *
+     * @param in the content, read to the end but not closed
+     * @return the hex encoded hash
+     * @throws IOException if the stream cannot be read
+     */
+    public static String sha256(final InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            in.transferTo(out);
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Computes the fingerprint deciding whether a definition changed since its last upload. The
+     * upload and sync tasks both use it, so they agree on what counts as a change.
+     *
+     * <p>With {@code canonical} the canonical form is hashed, so formatting changes do not count.
+     * Otherwise the hash is taken over a normalized form of the file: {@code CRLF} line endings are
+     * treated as {@code LF} and trailing whitespace at the end of the file is ignored, so a
+     * checkout on another platform does not count as a change.
+     *
+     * @param file the definition file
+     * @param canonical whether the canonical form is hashed
+     * @param yaml whether the definition is YAML, only used for the canonical form
+     * @return the hex encoded hash
+     * @throws IOException if the file cannot be read or, in canonical form, is malformed
+     */
+    public static String definitionHash(
+            final File file, final boolean canonical, final boolean yaml) throws IOException {
+        return canonical ? canonicalHash(file, yaml) : normalizedHash(file);
+    }
+
+    /**
+     * Computes the normalized SHA-256 hash of a definition, streaming the file.
+     *
+     * @param file the definition file
+     * @return the hex encoded hash
+     * @throws IOException if the file cannot be read
+     */
+    private static String normalizedHash(final File file) throws IOException {
+        MessageDigest digest = sha256();
+        // whitespace is held back until a non-whitespace byte shows it is not trailing
+        PendingWhitespace pending = new PendingWhitespace();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                // start of the current run of non-whitespace bytes, -1 outside of a run
+                int run = -1;
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                        if (run >= 0) {
+                            digest.update(buffer, run, i - run);
+                            run = -1;
+                        }
+                        pending.add(b);
+                    } else if (run < 0) {
+                        pending.flushTo(digest);
+                        run = i;
+                    }
+                }
+                if (run >= 0) {
+                    digest.update(buffer, run, read - run);
+                }
+            }
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Computes the SHA-256 hash of the canonical form of a definition. The canonical form is
+     * streamed into the digest and never held in memory.
+     *
+     * @param file the definition file
+     * @param yaml whether the definition is YAML
+     * @return the hex encoded hash
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    private static String canonicalHash(final File file, final boolean yaml) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file.toPath());
+                OutputStream out =
+                        new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            DefinitionCanonicalizer.canonicalize(in, yaml, out);
+        }
+        return hex(digest);
+    }
+
+    /** Whitespace held back while hashing, with {@code CR} dropped in front of {@code LF}. */
+    private static final class PendingWhitespace {
+        private byte[] bytes = new byte[BUFFER_SIZE];
+        private int size;
+
+        void add(final int b) {
+            if (b == '\n' && size > 0 && bytes[size - 1] == '\r') {
+                bytes[size - 1] = '\n';
+                return;
+            }
+            if (size == bytes.length) {
+                byte[] grown = new byte[size * 2];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void flushTo(final MessageDigest digest) {
+            digest.update(bytes, 0, size);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Runs the calls on a fixed pool with one platform thread per call in flight. */
+final class PlatformThreadRequestExecutor implements RequestExecutor {
+    /** Pool sized to the maximum number of calls in flight. */
+    private final ExecutorService executor;
+
+    PlatformThreadRequestExecutor(final int maxConcurrency) {
+        executor = Executors.newFixedThreadPool(maxConcurrency);
+    }
+
+    @Override
+    public <T> Future<T> submit(final Callable<T> call) {
+        return executor.submit(call);
+    }
+
+    @Override
+    public boolean isVirtual() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
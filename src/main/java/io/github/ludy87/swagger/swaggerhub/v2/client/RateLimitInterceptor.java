@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Limits the rate of SwaggerHub calls with one token bucket per host and token, so concurrent tasks
+ * of a build share the quota of a SwaggerHub account instead of running into {@code 429} responses.
+ *
+ * <p>A limit configured for a token takes precedence over the limit of the host. Tokens are
+ * identified by the SHA-256 fingerprint of their {@code Authorization} value, so the token itself
+ * never appears in the configuration.
+ *
+ * <p>Every call takes a permit; when the bucket is empty the call waits until a permit was
+ * refilled. Permits are handed out in order of arrival.
+ */
+public class RateLimitInterceptor implements Interceptor {
+    /** Limit applied to hosts without an own limit. */
+    private final Limit defaultLimit;
+
+    /** Limits by host name. */
+    private final Map<String, Limit> hostLimits;
+
+    /** Limits by SHA-256 fingerprint of the token. */
+    private final Map<String, Limit> tokenLimits;
+
+    /** Buckets by host and token. */
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /** Total time calls waited for a permit in nanoseconds. */
+    private final AtomicLong throttledNanos = new AtomicLong();
+
+    /**
+     * Creates the interceptor.
+     *
+     * @param defaultLimit limit applied to hosts without an own limit
+     * @param hostLimits limits by host name
+     * @param tokenLimits limits by lower case hex SHA-256 fingerprint of the token
+     */
+    public RateLimitInterceptor(
+            final Limit defaultLimit,
+            final Map<String, Limit> hostLimits,
+            final Map<String, Limit> tokenLimits) {
+        this.defaultLimit = defaultLimit;
+        this.hostLimits = Map.copyOf(hostLimits);
+        this.tokenLimits = Map.copyOf(tokenLimits);
+    }
+
+    /**
+     * Returns the total time calls waited for a permit.
+     *
+     * @return the waiting time in milliseconds
+     */
+    public long getThrottledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Request request = chain.request();
+        String host = request.url().host();
+        Limit hostLimit = hostLimits.getOrDefault(host, defaultLimit);
+        if (hostLimit.isUnlimited() && tokenLimits.isEmpty()) {
+            return chain.proceed(request);
+        }
+        String token = request.header("Authorization");
+        String fingerprint = token == null ? "" : Hashing.sha256(token);
+        Limit limit = tokenLimits.getOrDefault(fingerprint, hostLimit);
+        if (limit.isUnlimited()) {
+            return chain.proceed(request);
+        }
+
+        String key = host + ":" + request.url().port() + "|" + fingerprint;
+        long waitNanos = buckets.computeIfAbsent(key, k -> new TokenBucket(limit)).reserve();
+        if (waitNanos > 0) {
+            throttledNanos.addAndGet(waitNanos);
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+            }
+        }
+        return chain.proceed(request);
+    }
+
+    /** Permitted rate and burst of calls. */
+    public static final class Limit {
+        /** Limit that never throttles. */
+        public static final Limit UNLIMITED = new Limit(0, 0);
+
+        /** Permits refilled per second, {@code 0} for no limit. */
+        private final double permitsPerSecond;
+
+        /** Maximum number of permits available at once. */
+        private final int burst;
+
+        /**
+         * Creates a limit.
+         *
+         * @param permitsPerSecond permits refilled per second, {@code 0} or less for no limit
+         * @param burst maximum number of permits available at once, at least {@code 1}
+         */
+        public Limit(final double permitsPerSecond, final int burst) {
+            this.permitsPerSecond = Math.max(0, permitsPerSecond);
+            this.burst = Math.max(1, burst);
+        }
+
+        boolean isUnlimited() {
+            return permitsPerSecond == 0;
+        }
+
+        @Override
+        public String toString() {
+            return isUnlimited() ? "unlimited" : permitsPerSecond + "/s, burst " + burst;
+        }
+    }
+
+    /** Token bucket that lets callers reserve permits ahead, so waits are served in order. */
+    private static final class TokenBucket {
+        private final double permitsPerNano;
+        private final int burst;
+        private double permits;
+        private long refilledAt;
+
+        TokenBucket(final Limit limit) {
+            permitsPerNano = limit.permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            burst = limit.burst;
+            permits = burst;
+            refilledAt = System.nanoTime();
+        }
+
+        /**
+         * Takes a permit, possibly from the future.
+         *
+         * @return how long the caller has to wait before using the permit, in nanoseconds
+         */
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            permits = Math.min(burst, permits + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            permits -= 1;
+            return permits >= 0 ? 0 : (long) Math.ceil(-permits / permitsPerNano);
+        }
+    }
+}
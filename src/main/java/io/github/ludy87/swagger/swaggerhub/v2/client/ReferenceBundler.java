@@ -0,0 +1,328 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Resolves external {@code $ref}s of an API definition on the client, the local counterpart of
+ * downloading it with {@code resolved=true}.
+ *
+ * <p>Every referenced document is taken from a {@link ReferenceCache}, so a domain shared by many
+ * definitions is fetched once per build. A referenced component such as {@code
+ * domain#/components/schemas/Pet} is copied once into the same location of the definition, here
+ * {@code #/components/schemas/Pet}, and all references to it are rewritten to that local pointer.
+ * References inside the copied component are resolved the same way, relative to the document it
+ * came from. A name already taken in the definition gets a numeric suffix, e.g. {@code Pet_2}.
+ * References to whole documents or to array elements are inlined instead.
+ */
+public final class ReferenceBundler {
+    /** Mapper reading JSON definitions with exact numbers. */
+    private static final ObjectMapper JSON_MAPPER = mapper(new JsonFactory());
+
+    /** Mapper reading YAML definitions with exact numbers. */
+    private static final ObjectMapper YAML_MAPPER = mapper(new YAMLFactory());
+
+    /** Name of the reference property. */
+    private static final String REF = "$ref";
+
+    /** Definition the referenced components are copied into. */
+    private final ObjectNode root;
+
+    /** URL of the definition, without fragment. */
+    private final String rootUrl;
+
+    /** Source of the referenced documents. */
+    private final ReferenceCache cache;
+
+    /** Fetches referenced documents missing from the cache. */
+    private final ReferenceCache.Loader loader;
+
+    /** Local pointers of the components copied so far, by absolute reference. */
+    private final Map<String, String> imported = new HashMap<>();
+
+    /** Absolute references being inlined, to detect cycles. */
+    private final Set<String> inlining = new HashSet<>();
+
+    private ReferenceBundler(
+            final ObjectNode root,
+            final String rootUrl,
+            final ReferenceCache cache,
+            final ReferenceCache.Loader loader) {
+        this.root = root;
+        this.rootUrl = rootUrl;
+        this.cache = cache;
+        this.loader = loader;
+    }
+
+    /**
+     * Resolves the external references of a definition in place.
+     *
+     * @param definition the definition, modified in place
+     * @param url the URL the definition was downloaded from, relative references are resolved
+     *     against it
+     * @param cache source of the referenced documents
+     * @param loader fetches referenced documents missing from the cache
+     * @throws IOException if a referenced document cannot be fetched or a reference is invalid
+     */
+    public static void bundle(
+            final ObjectNode definition,
+            final String url,
+            final ReferenceCache cache,
+            final ReferenceCache.Loader loader)
+            throws IOException {
+        URI base = uri(url);
+        new ReferenceBundler(definition, documentOf(base), cache, loader).walk(definition, base);
+    }
+
+    /**
+     * Parses a definition or referenced document. JSON is recognized by its first character,
+     * anything else is read as YAML. Numbers keep their exact notation.
+     *
+     * @param in the document, read to the end but not closed
+     * @return the parsed document
+     * @throws IOException if the document cannot be read or is malformed
+     */
+    public static JsonNode read(final InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(1);
+        int first = buffered.read();
+        while (first == ' ' || first == '\t' || first == '\r' || first == '\n') {
+            buffered.mark(1);
+            first = buffered.read();
+        }
+        buffered.reset();
+        JsonNode document =
+                (first == '{' || first == '[' ? JSON_MAPPER : YAML_MAPPER).readTree(buffered);
+        if (document == null || document.isMissingNode()) {
+            throw new IOException("API definition is empty");
+        }
+        return document;
+    }
+
+    /**
+     * Writes a definition, JSON pretty printed or YAML in block style.
+     *
+     * @param definition the definition
+     * @param out receives the definition, flushed but not closed
+     * @param yaml whether YAML is written, otherwise JSON
+     * @throws IOException if the definition cannot be written
+     */
+    public static void write(final JsonNode definition, final OutputStream out, final boolean yaml)
+            throws IOException {
+        try (JsonGenerator generator = DefinitionConverter.generator(out, yaml)) {
+            if (!yaml) {
+                generator.useDefaultPrettyPrinter();
+            }
+            JSON_MAPPER.writeTree(generator, definition);
+        }
+    }
+
+    /**
+     * Resolves the references within a node.
+     *
+     * @param node the node, modified in place
+     * @param base URL of the document the node belongs to
+     * @return the node, or the inlined target if the node is a reference that is inlined
+     * @throws IOException if a reference cannot be resolved
+     */
+    private JsonNode walk(final JsonNode node, final URI base) throws IOException {
+        if (node.isArray()) {
+            ArrayNode array = (ArrayNode) node;
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, walk(array.get(i), base));
+            }
+            return array;
+        }
+        if (!node.isObject()) {
+            return node;
+        }
+
+        ObjectNode object = (ObjectNode) node;
+        JsonNode ref = object.get(REF);
+        if (ref != null && ref.isTextual()) {
+            JsonNode replacement = resolve(object, ref.asText(), base);
+            if (replacement != object) {
+                return replacement;
+            }
+        }
+        List<String> names = new ArrayList<>();
+        object.fieldNames().forEachRemaining(names::add);
+        for (String name : names) {
+            if (!REF.equals(name)) {
+                object.set(name, walk(object.get(name), base));
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Resolves a single reference. References into the definition itself are left alone, other
+     * components are copied into the definition or inlined.
+     *
+     * @param object the object holding the reference
+     * @param ref the reference
+     * @param base URL of the document the reference appears in
+     * @return the object with a rewritten reference, or the inlined target
+     * @throws IOException if the reference cannot be resolved
+     */
+    private JsonNode resolve(final ObjectNode object, final String ref, final URI base)
+            throws IOException {
+        URI target;
+        try {
+            target = base.resolve(ref);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid $ref '" + ref + "'", e);
+        }
+        String document = documentOf(target);
+        String fragment = target.getFragment() == null ? "" : target.getFragment();
+        if (!fragment.isEmpty() && !fragment.startsWith("/")) {
+            throw new IOException("Unsupported $ref '" + ref + "', expected a JSON pointer");
+        }
+        JsonPointer pointer = JsonPointer.compile(fragment);
+        if (document.equals(rootUrl)) {
+            if (!ref.startsWith("#")) {
+                object.put(REF, "#" + fragment);
+            }
+            return object;
+        }
+
+        String key = document + "#" + fragment;
+        String local = imported.get(key);
+        if (local == null && importable(document, pointer)) {
+            local = importComponent(key, document, pointer);
+        }
+        if (local != null) {
+            object.put(REF, "#" + local);
+            return object;
+        }
+
+        if (!inlining.add(key)) {
+            throw new IOException("Cannot inline circular $ref '" + key + "'");
+        }
+        try {
+            return walk(target(document, pointer).deepCopy(), uri(document));
+        } finally {
+            inlining.remove(key);
+        }
+    }
+
+    /**
+     * Tells whether a referenced node is a named member that can be copied to the same location of
+     * the definition.
+     *
+     * @param document URL of the referenced document
+     * @param pointer pointer to the referenced node
+     * @return {@code true} if the node can be imported, otherwise it is inlined
+     * @throws IOException if the referenced document cannot be fetched
+     */
+    private boolean importable(final String document, final JsonPointer pointer)
+            throws IOException {
+        if (pointer.matches() || pointer.tail().matches()) {
+            return false;
+        }
+        JsonPointer container = pointer.head();
+        JsonNode local = root.at(container);
+        return cache.get(document, loader).at(container).isObject()
+                && (local.isMissingNode() || local.isObject());
+    }
+
+    /**
+     * Copies a referenced component into the definition and resolves its own references.
+     *
+     * @param key the absolute reference of the component
+     * @param document URL of the referenced document
+     * @param pointer pointer to the component
+     * @return the local pointer of the copy
+     * @throws IOException if the component or one of its references cannot be resolved
+     */
+    private String importComponent(
+            final String key, final String document, final JsonPointer pointer) throws IOException {
+        JsonNode component = target(document, pointer).deepCopy();
+        JsonPointer container = pointer.head();
+        ObjectNode parent = root.withObject(container);
+        String name = pointer.last().getMatchingProperty();
+        String unique = name;
+        for (int i = 2; parent.has(unique); i++) {
+            unique = name + "_" + i;
+        }
+        String local = container.appendProperty(unique).toString();
+
+        // registered before the references of the component are walked, so cycles end here
+        imported.put(key, local);
+        parent.set(unique, component);
+        parent.set(unique, walk(component, uri(document)));
+        return local;
+    }
+
+    /**
+     * Looks up a referenced node.
+     *
+     * @param document URL of the referenced document
+     * @param pointer pointer to the node
+     * @return the shared node, to be copied before it is modified
+     * @throws IOException if the document cannot be fetched or has no such node
+     */
+    private JsonNode target(final String document, final JsonPointer pointer) throws IOException {
+        JsonNode node = cache.get(document, loader).at(pointer);
+        if (node.isMissingNode()) {
+            throw new IOException("$ref target " + document + "#" + pointer + " not found");
+        }
+        return node;
+    }
+
+    private static String documentOf(final URI uri) {
+        String value = uri.toString();
+        int hash = value.indexOf('#');
+        return hash < 0 ? value : value.substring(0, hash);
+    }
+
+    private static URI uri(final String url) throws IOException {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid URL '" + url + "'", e);
+        }
+    }
+
+    private static ObjectMapper mapper(final JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        mapper.configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+        return mapper;
+    }
+}
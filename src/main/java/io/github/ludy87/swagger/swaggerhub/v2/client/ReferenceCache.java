@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.gradle.api.logging.Logging;
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Documents referenced by {@code $ref}s, typically SwaggerHub domains, kept in memory for the
+ * lifetime of a build. Each URL is fetched once, however many definitions refer to it, and
+ * concurrent lookups of the same URL share one fetch. Failed fetches are not remembered.
+ *
+ * <p>The returned documents are shared and must not be modified.
+ */
+public class ReferenceCache {
+    /** Logger instance for the cache. */
+    private static final Logger LOGGER = Logging.getLogger(ReferenceCache.class);
+
+    /** Loaded documents and loads in progress by URL. */
+    private final Map<String, CompletableFuture<JsonNode>> documents = new ConcurrentHashMap<>();
+
+    /** Fetches and parses a referenced document. */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Loads the document.
+         *
+         * @param url the URL of the document, without fragment
+         * @return the parsed document
+         * @throws IOException if the document cannot be fetched or parsed
+         */
+        JsonNode load(String url) throws IOException;
+    }
+
+    /**
+     * Returns the document at a URL, loading it only on the first lookup.
+     *
+     * @param url the URL of the document, without fragment
+     * @param loader loads the document
+     * @return the parsed document
+     * @throws IOException if the loader fails
+     */
+    public JsonNode get(final String url, final Loader loader) throws IOException {
+        CompletableFuture<JsonNode> load = new CompletableFuture<>();
+        CompletableFuture<JsonNode> existing = documents.putIfAbsent(url, load);
+        if (existing != null) {
+            LOGGER.debug("Reusing referenced document {}", url);
+            return await(existing);
+        }
+        try {
+            JsonNode document = loader.load(url);
+            load.complete(document);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            documents.remove(url, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of documents loaded or being loaded.
+     *
+     * @return the number of documents
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    private static JsonNode await(final CompletableFuture<JsonNode> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a referenced document", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Runs blocking {@link SwaggerHubClient} calls of bulk operations concurrently, with at most a
+ * given number of calls in flight.
+ *
+ * <p>{@link #create(int)} picks a virtual thread per call on JDK 21 and newer, so the limit can be
+ * raised to thousands at a tiny memory cost, and falls back to a bounded platform thread pool on
+ * older JDKs.
+ */
+public interface RequestExecutor extends AutoCloseable {
+    /**
+     * Submits a call.
+     *
+     * @param call the blocking call
+     * @param <T> the result type
+     * @return the future of the result
+     */
+    <T> Future<T> submit(Callable<T> call);
+
+    /**
+     * Returns whether calls run on virtual threads.
+     *
+     * @return {@code true} for virtual threads, {@code false} for a platform thread pool
+     */
+    boolean isVirtual();
+
+    /** Interrupts running calls and releases the threads. */
+    @Override
+    void close();
+
+    /**
+     * Creates the best executor for the running JDK.
+     *
+     * @param maxConcurrency maximum number of calls in flight, at least {@code 1}
+     * @return a virtual thread executor on JDK 21 and newer, a bounded pool otherwise
+     */
+    static RequestExecutor create(final int maxConcurrency) {
+        int limit = Math.max(1, maxConcurrency);
+        if (VirtualThreadRequestExecutor.isSupported()) {
+            return new VirtualThreadRequestExecutor(limit);
+        }
+        return new PlatformThreadRequestExecutor(limit);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Records timings and transferred bytes of every call of an {@link okhttp3.OkHttpClient}.
+ *
+ * <p>Register it as event listener factory of the client. Each call gets its own listener that
+ * measures DNS lookup, connect, TLS handshake, time to first byte and total duration, and adds a
+ * {@link CallRecord} once the call ended or failed.
+ */
+public class RequestMetrics implements EventListener.Factory {
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /** Records of the finished calls. */
+    private final Queue<CallRecord> calls = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public EventListener create(final Call call) {
+        return new Listener();
+    }
+
+    /**
+     * Returns the records of all calls finished so far.
+     *
+     * @return a snapshot of the call records
+     */
+    public List<CallRecord> getCalls() {
+        return new ArrayList<>(calls);
+    }
+
+    /**
+     * Returns the operation a call performs, as tagged on its request by {@link SwaggerHubClient}.
+     * Untagged requests are reported by their HTTP method.
+     *
+     * @param request the request of the call
+     * @return the operation type
+     */
+    static String operation(final Request request) {
+        Operation operation = request.tag(Operation.class);
+        return operation != null ? operation.getLabel() : request.method().toLowerCase(Locale.ROOT);
+    }
+
+    /** Operation types of SwaggerHub calls, set as tag on their requests. */
+    @Getter
+    public enum Operation {
+        /** Download of an API definition. */
+        DOWNLOAD("download"),
+
+        /** {@code HEAD} request looking up the revision of a definition. */
+        REVISION("revision"),
+
+        /** Page of an API listing. */
+        LISTING("listing"),
+
+        /** Document referenced by a bundled definition. */
+        REFERENCE("reference"),
+
+        /** Upload of an API definition. */
+        UPLOAD("upload"),
+
+        /** Update of the default version. */
+        SET_DEFAULT_VERSION("setDefaultVersion"),
+
+        /** Unpublishing of a version. */
+        UNPUBLISH("unpublish"),
+
+        /** Deletion of a version. */
+        DELETE("delete");
+
+        /** Name of the operation in the report. */
+        private final String label;
+
+        Operation(final String label) {
+            this.label = label;
+        }
+    }
+
+    /** Timings and sizes of a single call. Durations are in milliseconds, {@code 0} if skipped. */
+    @Getter
+    @Builder
+    public static class CallRecord {
+        /** Operation type, e.g. {@code download} or {@code upload}. */
+        private final String operation;
+
+        /** HTTP method. */
+        private final String method;
+
+        /** Requested URL without query. */
+        private final String url;
+
+        /** HTTP status of the last response, {@code 0} if none was received. */
+        private final int status;
+
+        /** Whether the call failed with an I/O error or was cancelled. */
+        private final boolean failed;
+
+        /** Time spent resolving host names. */
+        private final double dnsMillis;
+
+        /** Time spent connecting, including the TLS handshake. */
+        private final double connectMillis;
+
+        /** Time spent in the TLS handshake. */
+        private final double tlsMillis;
+
+        /** Time from the start of the last request until its response headers arrived. */
+        private final double ttfbMillis;
+
+        /** Duration of the whole call including retries and reading the body. */
+        private final double totalMillis;
+
+        /** Bytes of request bodies sent. */
+        private final long bytesOut;
+
+        /** Bytes of response bodies received, compressed as transferred. */
+        private final long bytesIn;
+    }
+
+    /** Collects the events of one call. Calls report their events from one thread at a time. */
+    private final class Listener extends EventListener {
+        private long callStart;
+        private long dnsStart;
+        private long dnsNanos;
+        private long connectStart;
+        private long connectNanos;
+        private long tlsStart;
+        private long tlsNanos;
+        private long requestStart;
+        private long ttfbNanos;
+        private long bytesOut;
+        private long bytesIn;
+        private int status;
+
+        @Override
+        public void callStart(final Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(final Call call, final String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(
+                final Call call, final String domainName, final List<InetAddress> addresses) {
+            dnsNanos += System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(
+                final Call call, final InetSocketAddress address, final Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(final Call call) {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(final Call call, final Handshake handshake) {
+            tlsNanos += System.nanoTime() - tlsStart;
+        }
+
+        @Override
+        public void connectEnd(
+                final Call call,
+                final InetSocketAddress address,
+                final Proxy proxy,
+                final Protocol protocol) {
+            connectNanos += System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void connectFailed(
+                final Call call,
+                final InetSocketAddress address,
+                final Proxy proxy,
+                final Protocol protocol,
+                final IOException e) {
+            connectNanos += System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void requestHeadersStart(final Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(final Call call, final long byteCount) {
+            bytesOut += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(final Call call) {
+            ttfbNanos = System.nanoTime() - requestStart;
+        }
+
+        @Override
+        public void responseHeadersEnd(final Call call, final Response response) {
+            status = response.code();
+        }
+
+        @Override
+        public void responseBodyEnd(final Call call, final long byteCount) {
+            bytesIn += byteCount;
+        }
+
+        @Override
+        public void callEnd(final Call call) {
+            record(call, false);
+        }
+
+        @Override
+        public void callFailed(final Call call, final IOException ioe) {
+            record(call, true);
+        }
+
+        private void record(final Call call, final boolean failed) {
+            Request request = call.request();
+            calls.add(
+                    CallRecord.builder()
+                            .operation(operation(request))
+                            .method(request.method())
+                            .url(request.url().newBuilder().query(null).build().toString())
+                            .status(status)
+                            .failed(failed)
+                            .dnsMillis(dnsNanos / NANOS_PER_MILLI)
+                            .connectMillis(connectNanos / NANOS_PER_MILLI)
+                            .tlsMillis(tlsNanos / NANOS_PER_MILLI)
+                            .ttfbMillis(ttfbNanos / NANOS_PER_MILLI)
+                            .totalMillis((System.nanoTime() - callStart) / NANOS_PER_MILLI)
+                            .bytesOut(bytesOut)
+                            .bytesIn(bytesIn)
+                            .build());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gradle.api.logging.Logging;
+import org.slf4j.Logger;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries SwaggerHub calls that failed for transient reasons, with exponential backoff and full
+ * jitter.
+ *
+ * <p>Idempotent requests ({@code GET}, {@code HEAD}, {@code PUT}, {@code DELETE}) are retried on
+ * {@code 429}, {@code 502}, {@code 503} and {@code 504} responses and on I/O errors. Other requests
+ * such as the {@code POST} of an upload are only retried when the connection could not be
+ * established, so SwaggerHub never receives them twice. A {@code Retry-After} header takes
+ * precedence over the computed backoff.
+ */
+public class RetryInterceptor implements Interceptor {
+    /** Default maximum number of attempts per call. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Default backoff before the first retry in milliseconds. */
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 500;
+
+    /** Default upper bound of a single backoff in milliseconds. */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30_000;
+
+    /** Logger instance for the retries. */
+    private static final Logger LOGGER = Logging.getLogger(RetryInterceptor.class);
+
+    /** HTTP methods that may be repeated without changing the result. */
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE");
+
+    /** Status codes signalling a transient failure. */
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(429, 502, 503, 504);
+
+    /** Maximum number of attempts per call, including the first one. */
+    private final int maxAttempts;
+
+    /** Backoff before the first retry in milliseconds. */
+    private final long initialDelayMillis;
+
+    /** Upper bound of a single backoff in milliseconds, also applied to {@code Retry-After}. */
+    private final long maxDelayMillis;
+
+    /** Number of retries performed by this interceptor. */
+    private final AtomicLong retries = new AtomicLong();
+
+    /** Number of calls that still failed after the last attempt. */
+    private final AtomicLong exhausted = new AtomicLong();
+
+    /** Creates the interceptor with the default retry policy. */
+    public RetryInterceptor() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * Creates the interceptor.
+     *
+     * @param maxAttempts maximum number of attempts per call, {@code 1} disables retries
+     * @param initialDelayMillis backoff before the first retry in milliseconds
+     * @param maxDelayMillis upper bound of a single backoff in milliseconds
+     */
+    public RetryInterceptor(
+            final int maxAttempts, final long initialDelayMillis, final long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayMillis = Math.max(0, initialDelayMillis);
+        this.maxDelayMillis = Math.max(this.initialDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * Returns the number of retries performed so far.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Returns the number of calls that failed although all attempts were used.
+     *
+     * @return the count of exhausted calls
+     */
+    public long getExhaustedCount() {
+        return exhausted.get();
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean idempotent = IDEMPOTENT_METHODS.contains(request.method());
+
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= maxAttempts;
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (lastAttempt || !(idempotent || isConnectFailure(e))) {
+                    countExhausted(lastAttempt);
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                LOGGER.info(
+                        "{} {} failed ({}), retrying in {} ms",
+                        request.method(),
+                        request.url(),
+                        e.getMessage(),
+                        delay);
+                pause(delay);
+                continue;
+            }
+
+            if (!idempotent || !RETRYABLE_STATUS_CODES.contains(response.code())) {
+                return response;
+            }
+            if (lastAttempt) {
+                countExhausted(true);
+                return response;
+            }
+            long delay = retryAfter(response.header("Retry-After"));
+            if (delay < 0) {
+                delay = backoff(attempt);
+            }
+            LOGGER.info(
+                    "{} {} answered {}, retrying in {} ms",
+                    request.method(),
+                    request.url(),
+                    response.code(),
+                    delay);
+            response.close();
+            pause(delay);
+        }
+    }
+
+    /**
+     * Computes the backoff before the next attempt: a random delay between zero and the
+     * exponentially growing cap ("full jitter").
+     *
+     * @param attempt the number of the failed attempt, starting at {@code 1}
+     * @return the delay in milliseconds
+     */
+    private long backoff(final int attempt) {
+        long cap = initialDelayMillis << Math.min(attempt - 1, 30);
+        if (cap <= 0 || cap > maxDelayMillis) {
+            cap = maxDelayMillis;
+        }
+        return cap == 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given in seconds or as an HTTP date.
+     *
+     * @param value the header value, may be {@code null}
+     * @return the delay in milliseconds capped by the maximum delay, or {@code -1} if absent or
+     *     invalid
+     */
+    private long retryAfter(final String value) {
+        if (value == null) {
+            return -1;
+        }
+        long millis;
+        try {
+            millis = Duration.ofSeconds(Long.parseLong(value.trim())).toMillis();
+        } catch (NumberFormatException e) {
+            try {
+                Instant date =
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                                .toInstant();
+                millis = Duration.between(Instant.now(), date).toMillis();
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+        return Math.min(Math.max(0, millis), maxDelayMillis);
+    }
+
+    /**
+     * Records a retry and waits before the next attempt.
+     *
+     * @param delay the delay in milliseconds
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    private void pause(final long delay) throws InterruptedIOException {
+        retries.incrementAndGet();
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    private void countExhausted(final boolean lastAttempt) {
+        if (lastAttempt && maxAttempts > 1) {
+            exhausted.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks whether the request failed before anything was sent to the server.
+     *
+     * @param e the failure
+     * @return {@code true} if the connection could not be established
+     */
+    private static boolean isConnectFailure(final IOException e) {
+        return e instanceof ConnectException || e instanceof UnknownHostException;
+    }
+}
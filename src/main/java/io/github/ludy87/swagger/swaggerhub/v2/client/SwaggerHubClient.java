@@ -31,14 +31,35 @@
  */
 package io.github.ludy87.swagger.swaggerhub.v2.client;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logging;
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestMetrics.Operation;
 
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
@@ -46,19 +67,42 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
 
 /** Client for interacting with the SwaggerHub API. */
 @Getter
 @Builder
 public class SwaggerHubClient {
+    /** Logger instance for the client. */
+    private static final Logger LOGGER = Logging.getLogger(SwaggerHubClient.class);
+
     /** Error message prefix when a download fails. */
     private static final String DOWNLOAD_FAILED_ERROR = "Failed to download API definition: ";
 
+    /** Error message prefix when the revision lookup fails. */
+    private static final String REVISION_FAILED_ERROR = "Failed to fetch API revision: ";
+
     /** Error message prefix when an upload fails. */
     private static final String UPLOAD_FAILED_ERROR = "Failed to upload API definition: ";
 
-    /** Shared HTTP client used by default instances. */
-    private static final OkHttpClient DEFAULT_CLIENT = new OkHttpClient();
+    /** Error message prefix when a version cannot be deleted or unpublished. */
+    private static final String REMOVE_FAILED_ERROR = "Failed to remove API version: ";
+
+    /** Error message prefix when a registry listing fails. */
+    private static final String LIST_FAILED_ERROR = "Failed to list APIs: ";
+
+    /**
+     * Shared HTTP client used by instances created without a client. It retries transient failures
+     * with the default policy of {@link RetryInterceptor}. Timeouts, the rate limit and request
+     * metrics are only configured on the client of the SwaggerHub build service.
+     */
+    private static final OkHttpClient DEFAULT_CLIENT =
+            new OkHttpClient.Builder().addInterceptor(new RetryInterceptor()).build();
+
+    /** HTTP status returned when a conditional request matches the current definition. */
+    private static final int HTTP_NOT_MODIFIED = 304;
 
     /** Path segment used for API requests. */
     private static final String APIS = "apis";
@@ -84,6 +128,12 @@ public class SwaggerHubClient {
     /** HTTP client used to execute requests. */
     @Builder.Default private final OkHttpClient client = DEFAULT_CLIENT;
 
+    /** Optional local cache consulted before definitions are downloaded. */
+    private final DefinitionCache cache;
+
+    /** Documents referenced by bundled definitions, {@code null} to fetch them per download. */
+    private final ReferenceCache references;
+
     /**
      * Creates a SwaggerHubClient for public SwaggerHub instances.
      *
@@ -124,30 +174,37 @@ public class SwaggerHubClient {
             final String token,
             final Boolean onPremise,
             final String onPremiseAPISuffix) {
-        SwaggerHubClient swaggerHubClient =
-                SwaggerHubClient.builder()
-                        .host(host)
-                        .port(port)
-                        .protocol(protocol)
-                        .token(token)
-                        .onPremise(onPremise != null ? onPremise : false)
-                        .onPremiseAPISuffix(onPremiseAPISuffix != null ? onPremiseAPISuffix : "v1")
-                        .client(DEFAULT_CLIENT)
-                        .build();
-        return swaggerHubClient;
+        return SwaggerHubClient.builder()
+                .host(host)
+                .port(port)
+                .protocol(protocol)
+                .token(token)
+                .onPremise(onPremise != null ? onPremise : false)
+                .onPremiseAPISuffix(onPremiseAPISuffix != null ? onPremiseAPISuffix : "v1")
+                .client(DEFAULT_CLIENT)
+                .build();
     }
 
     /**
-     * Downloads the API definition from SwaggerHub.
+     * Downloads the API definition from SwaggerHub. With a definition cache the cached definition
+     * is returned when it is fresh, and concurrent calls for the same definition share one
+     * download.
      *
      * @param swaggerHubRequest the request containing API details
      * @return the API definition as a string
      * @throws GradleException if there is an error during the GET request
      */
     public String getDefinition(final SwaggerHubRequest swaggerHubRequest) throws GradleException {
+        if (cache != null) {
+            try {
+                return cachedDefinition(swaggerHubRequest).read();
+            } catch (UncheckedIOException e) {
+                throw new GradleException(DOWNLOAD_FAILED_ERROR + e.getCause().getMessage(), e);
+            }
+        }
         HttpUrl httpUrl = getDownloadUrl(swaggerHubRequest);
         MediaType mediaType = getMediaType(swaggerHubRequest);
-        Request requestBuilder = buildGetRequest(httpUrl, mediaType);
+        Request requestBuilder = buildGetRequest(httpUrl, mediaType, swaggerHubRequest);
 
         try (Response response = client.newCall(requestBuilder).execute()) {
             if (!response.isSuccessful()) {
@@ -160,6 +217,356 @@ public class SwaggerHubClient {
         }
     }
 
+    /**
+     * Fetches the current revision of the API definition with a {@code HEAD} request, so the
+     * definition itself is not transferred. The ETag is preferred, the Last-Modified timestamp is
+     * used when SwaggerHub does not send one.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @return the revision fingerprint, or {@code null} if SwaggerHub reported none
+     * @throws GradleException if the request fails
+     */
+    public String fetchRevision(final SwaggerHubRequest swaggerHubRequest) throws GradleException {
+        HttpUrl httpUrl = getDownloadUrl(swaggerHubRequest);
+        MediaType mediaType = getMediaType(swaggerHubRequest);
+        Request request =
+                buildGetRequest(httpUrl, mediaType, swaggerHubRequest)
+                        .newBuilder()
+                        .head()
+                        .tag(Operation.class, Operation.REVISION)
+                        .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new GradleException(
+                        REVISION_FAILED_ERROR
+                                + "HTTP "
+                                + response.code()
+                                + " "
+                                + response.message());
+            }
+            String eTag = response.header("ETag");
+            return eTag != null ? eTag : response.header("Last-Modified");
+        } catch (IOException e) {
+            throw new GradleException(REVISION_FAILED_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams the API definition from SwaggerHub into the target file unless it is unchanged. The
+     * ETag and Last-Modified values of the request are sent as validators, so SwaggerHub can answer
+     * {@code 304 Not Modified} without transferring the definition again.
+     *
+     * <p>The body is copied into a temporary file next to the target and then moved over it, so the
+     * definition is never held in memory and a failed download leaves the previous file untouched.
+     *
+     * <p>With a definition cache the definition is taken from the cache, which downloads it only
+     * when it is missing or stale. The target is then left untouched if its ETag matches the cached
+     * one.
+     *
+     * @param swaggerHubRequest the request containing API details and optional validators
+     * @param target the file the definition is written to
+     * @return the download result, marked as not modified on a {@code 304} response
+     * @throws GradleException if there is an error during the GET request or the file write
+     */
+    public DownloadResult downloadDefinition(
+            final SwaggerHubRequest swaggerHubRequest, final Path target) throws GradleException {
+        if (Boolean.TRUE.equals(swaggerHubRequest.getBundle())) {
+            return downloadBundledDefinition(swaggerHubRequest, target);
+        }
+        if (cache != null) {
+            return copyCachedDefinition(swaggerHubRequest, target);
+        }
+        HttpUrl httpUrl = getDownloadUrl(swaggerHubRequest);
+        MediaType mediaType = getMediaType(swaggerHubRequest);
+        Request requestBuilder = buildGetRequest(httpUrl, mediaType, swaggerHubRequest);
+
+        try (Response response = client.newCall(requestBuilder).execute()) {
+            LOGGER.debug(
+                    "GET {} answered {} via {}", httpUrl, response.code(), response.protocol());
+            if (response.code() == HTTP_NOT_MODIFIED) {
+                return DownloadResult.builder()
+                        .notModified(true)
+                        .eTag(swaggerHubRequest.getETag())
+                        .lastModified(swaggerHubRequest.getLastModified())
+                        .build();
+            }
+            if (!response.isSuccessful()) {
+                throw new GradleException(DOWNLOAD_FAILED_ERROR + responseBody(response));
+            }
+            writeAtomically(response.body(), target, swaggerHubRequest);
+            return DownloadResult.builder()
+                    .notModified(false)
+                    .eTag(response.header("ETag"))
+                    .lastModified(response.header("Last-Modified"))
+                    .build();
+        } catch (IOException e) {
+            throw new GradleException(DOWNLOAD_FAILED_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Downloads the unresolved definition, resolves its external references locally and writes the
+     * bundled definition into the target file. Referenced documents are fetched through the
+     * reference cache, so each of them is transferred once per build. Validators are not sent,
+     * since the bundle also depends on the referenced documents.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @param target the file the bundled definition is written to
+     * @return the download result, never marked as not modified
+     * @throws GradleException if a document cannot be downloaded or the file write fails
+     */
+    private DownloadResult downloadBundledDefinition(
+            final SwaggerHubRequest swaggerHubRequest, final Path target) throws GradleException {
+        SwaggerHubRequest unresolved =
+                swaggerHubRequest.toBuilder()
+                        .format("json")
+                        .resolved(false)
+                        .bundle(false)
+                        .eTag(null)
+                        .lastModified(null)
+                        .build();
+        HttpUrl httpUrl = getDownloadUrl(unresolved);
+        ReferenceCache referenceCache = references != null ? references : new ReferenceCache();
+        String fileFormat =
+                swaggerHubRequest.getFileFormat() != null
+                        ? swaggerHubRequest.getFileFormat()
+                        : swaggerHubRequest.getFormat();
+
+        try {
+            JsonNode definition;
+            if (cache != null) {
+                try (InputStream in =
+                        Files.newInputStream(cachedDefinition(unresolved).getBlob())) {
+                    definition = ReferenceBundler.read(in);
+                }
+            } else {
+                definition =
+                        fetchDocument(
+                                buildGetRequest(
+                                        httpUrl, MediaType.get("application/json"), unresolved));
+            }
+            if (!definition.isObject()) {
+                throw new IOException("API definition is not an object");
+            }
+            ReferenceBundler.bundle(
+                    (ObjectNode) definition,
+                    httpUrl.toString(),
+                    referenceCache,
+                    this::fetchReference);
+            writeAtomically(
+                    target,
+                    out ->
+                            ReferenceBundler.write(
+                                    definition, out, DefinitionConverter.isYaml(fileFormat)));
+            return DownloadResult.builder().notModified(false).build();
+        } catch (IOException e) {
+            throw new GradleException(DOWNLOAD_FAILED_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetches a document referenced by a bundled definition, through the definition cache if one is
+     * configured. The token is only sent to the SwaggerHub instance of this client.
+     *
+     * @param url the URL of the document, without fragment
+     * @return the parsed document
+     * @throws IOException if the document cannot be fetched or parsed
+     */
+    private JsonNode fetchReference(final String url) throws IOException {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        if (httpUrl == null) {
+            throw new IOException("Unsupported $ref URL " + url);
+        }
+        Request.Builder requestBuilder =
+                new Request.Builder()
+                        .url(httpUrl)
+                        .addHeader("Accept", "application/json")
+                        .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                        .tag(Operation.class, Operation.REFERENCE);
+        boolean authorized =
+                token != null && httpUrl.host().equalsIgnoreCase(host) && httpUrl.port() == port;
+        if (authorized) {
+            requestBuilder.addHeader("Authorization", token);
+        }
+        Request request = requestBuilder.build();
+        LOGGER.info("Fetching referenced document {}", httpUrl);
+
+        if (cache != null) {
+            String key = "json " + httpUrl + (authorized ? tokenFingerprint() : "");
+            DefinitionCache.Entry entry =
+                    cache.get(key, stale -> fetchIntoCache(request, key, stale));
+            try (InputStream in = Files.newInputStream(entry.getBlob())) {
+                return ReferenceBundler.read(in);
+            }
+        }
+        return fetchDocument(request);
+    }
+
+    /**
+     * Executes a GET request and parses the response as JSON or YAML document.
+     *
+     * @param request the request
+     * @return the parsed document
+     * @throws IOException if the request fails or the document is malformed
+     * @throws GradleException if the server answers with an error
+     */
+    private JsonNode fetchDocument(final Request request) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            LOGGER.debug(
+                    "GET {} answered {} via {}",
+                    request.url(),
+                    response.code(),
+                    response.protocol());
+            if (!response.isSuccessful()) {
+                throw new GradleException(
+                        "GET " + request.url() + " failed: " + responseBody(response));
+            }
+            ResponseBody body = response.body();
+            try (InputStream in =
+                    body == null ? InputStream.nullInputStream() : body.byteStream()) {
+                return ReferenceBundler.read(in);
+            }
+        }
+    }
+
+    /**
+     * Returns the cache entry of the requested definition, downloading it if necessary.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @return the cache entry
+     * @throws GradleException if the definition cannot be downloaded or cached
+     */
+    private DefinitionCache.Entry cachedDefinition(final SwaggerHubRequest swaggerHubRequest)
+            throws GradleException {
+        String key = cacheKey(swaggerHubRequest);
+        try {
+            return cache.get(key, stale -> fetchIntoCache(swaggerHubRequest, key, stale));
+        } catch (IOException e) {
+            throw new GradleException(DOWNLOAD_FAILED_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies the cached definition into the target file unless the target already holds it.
+     *
+     * @param swaggerHubRequest the request containing API details and optional validators
+     * @param target the file the definition is written to
+     * @return the download result carrying the validators of the cached definition
+     * @throws GradleException if the definition cannot be downloaded or the file write fails
+     */
+    private DownloadResult copyCachedDefinition(
+            final SwaggerHubRequest swaggerHubRequest, final Path target) throws GradleException {
+        DefinitionCache.Entry entry = cachedDefinition(swaggerHubRequest);
+        boolean unchanged =
+                entry.getETag() != null
+                        && entry.getETag().equals(swaggerHubRequest.getETag())
+                        && Files.isRegularFile(target);
+        if (!unchanged) {
+            try (InputStream in = Files.newInputStream(entry.getBlob())) {
+                writeAtomically(in, target, swaggerHubRequest);
+            } catch (IOException e) {
+                throw new GradleException(DOWNLOAD_FAILED_ERROR + e.getMessage(), e);
+            }
+        }
+        return DownloadResult.builder()
+                .notModified(unchanged)
+                .eTag(entry.getETag())
+                .lastModified(entry.getLastModified())
+                .build();
+    }
+
+    /**
+     * Downloads a definition into the cache. The validators of a stale entry are sent instead of
+     * those of the request, so SwaggerHub can confirm the cached definition.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @param key the cache key of the definition
+     * @param stale the stale cache entry, or {@code null}
+     * @return the new entry, or {@code stale} on a {@code 304} response
+     * @throws IOException if the definition cannot be read or stored
+     * @throws GradleException if SwaggerHub answers with an error
+     */
+    private DefinitionCache.Entry fetchIntoCache(
+            final SwaggerHubRequest swaggerHubRequest,
+            final String key,
+            final DefinitionCache.Entry stale)
+            throws IOException {
+        HttpUrl httpUrl = getDownloadUrl(swaggerHubRequest);
+        return fetchIntoCache(
+                buildGetRequest(httpUrl, getMediaType(swaggerHubRequest), swaggerHubRequest),
+                key,
+                stale);
+    }
+
+    /**
+     * Executes a GET request and stores the response in the cache, revalidating a stale entry.
+     *
+     * @param request the request, its validators are replaced by those of the stale entry
+     * @param key the cache key of the document
+     * @param stale the stale cache entry, or {@code null}
+     * @return the new entry, or {@code stale} on a {@code 304} response
+     * @throws IOException if the document cannot be read or stored
+     * @throws GradleException if the server answers with an error
+     */
+    private DefinitionCache.Entry fetchIntoCache(
+            final Request request, final String key, final DefinitionCache.Entry stale)
+            throws IOException {
+        HttpUrl httpUrl = request.url();
+        Request.Builder requestBuilder =
+                request.newBuilder()
+                        .removeHeader("If-None-Match")
+                        .removeHeader("If-Modified-Since");
+        if (stale != null && stale.getETag() != null) {
+            requestBuilder.addHeader("If-None-Match", stale.getETag());
+        }
+        if (stale != null && stale.getLastModified() != null) {
+            requestBuilder.addHeader("If-Modified-Since", stale.getLastModified());
+        }
+
+        try (Response response = client.newCall(requestBuilder.build()).execute()) {
+            LOGGER.debug(
+                    "GET {} answered {} via {}", httpUrl, response.code(), response.protocol());
+            if (stale != null && response.code() == HTTP_NOT_MODIFIED) {
+                return stale;
+            }
+            if (!response.isSuccessful()) {
+                throw new GradleException(DOWNLOAD_FAILED_ERROR + responseBody(response));
+            }
+            ResponseBody body = response.body();
+            try (InputStream in =
+                    body == null ? InputStream.nullInputStream() : body.byteStream()) {
+                return cache.store(
+                        key, in, response.header("ETag"), response.header("Last-Modified"));
+            }
+        }
+    }
+
+    /**
+     * Returns the cache key of a definition: its download URL together with the format and a
+     * fingerprint of the token, so a definition fetched with one token is never served to a build
+     * using another token or none.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @return the cache key
+     */
+    private String cacheKey(final SwaggerHubRequest swaggerHubRequest) {
+        return swaggerHubRequest.getFormat()
+                + " "
+                + getDownloadUrl(swaggerHubRequest)
+                + tokenFingerprint();
+    }
+
+    /**
+     * Returns the part of a cache key identifying the token, its SHA-256 hash so the token itself
+     * is never written to the cache.
+     *
+     * @return {@code " token=<hash>"}, or an empty string without token
+     */
+    private String tokenFingerprint() {
+        return token == null ? "" : " token=" + Hashing.sha256(token);
+    }
+
     /**
      * Saves the API definition to SwaggerHub.
      *
@@ -167,11 +574,14 @@ public class SwaggerHubClient {
      * @throws GradleException if there is an error during the POST request
      */
     public void saveDefinition(final SwaggerHubRequest swaggerHubRequest) throws GradleException {
-        HttpUrl httpUrl = getUploadUrl(swaggerHubRequest);
-        MediaType mediaType = getMediaType(swaggerHubRequest);
-        Request httpRequest = buildPostRequest(httpUrl, mediaType, swaggerHubRequest.getSwagger());
+        Request httpRequest = buildUploadRequest(swaggerHubRequest);
 
         try (Response response = client.newCall(httpRequest).execute()) {
+            LOGGER.debug(
+                    "POST {} answered {} via {}",
+                    httpRequest.url(),
+                    response.code(),
+                    response.protocol());
             if (!response.isSuccessful()) {
                 throw new GradleException(UPLOAD_FAILED_ERROR + responseBody(response));
             }
@@ -200,42 +610,479 @@ public class SwaggerHubClient {
         }
     }
 
+    /**
+     * Lists all APIs of an owner, following the pages of the registry listing. Every entry
+     * describes the default version of an API.
+     *
+     * @param owner the owner of the APIs
+     * @param pageSize the number of entries requested per page
+     * @return the APIs
+     * @throws GradleException if a page cannot be fetched or read
+     */
+    public List<ApiListing.Api> listApis(final String owner, final int pageSize)
+            throws GradleException {
+        return list(getOwnerUrl(owner).build(), pageSize);
+    }
+
+    /**
+     * Lists all versions of an API, following the pages of the registry listing.
+     *
+     * @param owner the owner of the API
+     * @param api the name of the API
+     * @param pageSize the number of entries requested per page
+     * @return one entry per version
+     * @throws GradleException if a page cannot be fetched or read
+     */
+    public List<ApiListing.Api> listVersions(
+            final String owner, final String api, final int pageSize) throws GradleException {
+        return list(getBaseUrl(owner, api).build(), pageSize);
+    }
+
+    /**
+     * Fetches the pages of a registry listing until all entries are known. Listings sent without a
+     * total count end with the first page that is not full.
+     *
+     * @param httpUrl the URL of the listing
+     * @param pageSize the number of entries requested per page
+     * @return the entries of all pages
+     * @throws GradleException if a page cannot be fetched or read
+     */
+    private List<ApiListing.Api> list(final HttpUrl httpUrl, final int pageSize)
+            throws GradleException {
+        List<ApiListing.Api> apis = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            HttpUrl pageUrl =
+                    httpUrl.newBuilder()
+                            .addQueryParameter("page", String.valueOf(page))
+                            .addQueryParameter("limit", String.valueOf(pageSize))
+                            .addQueryParameter("sort", "NAME")
+                            .addQueryParameter("order", "ASC")
+                            .build();
+            Request.Builder requestBuilder =
+                    new Request.Builder()
+                            .url(pageUrl)
+                            .addHeader("Accept", "application/json")
+                            .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                            .tag(Operation.class, Operation.LISTING);
+            if (token != null) {
+                requestBuilder.addHeader("Authorization", token);
+            }
+
+            ApiListing listing;
+            try (Response response = client.newCall(requestBuilder.build()).execute()) {
+                LOGGER.debug("GET {} answered {}", pageUrl, response.code());
+                if (!response.isSuccessful()) {
+                    throw new GradleException(LIST_FAILED_ERROR + responseBody(response));
+                }
+                listing = ApiListing.parse(response.body().byteStream());
+            } catch (IOException e) {
+                throw new GradleException(LIST_FAILED_ERROR + e.getMessage(), e);
+            }
+
+            apis.addAll(listing.getApis());
+            int received = listing.getApis().size();
+            boolean complete =
+                    listing.getTotalCount() >= 0
+                            ? listing.getOffset() + received >= listing.getTotalCount()
+                            : received < pageSize;
+            if (received == 0 || complete) {
+                return apis;
+            }
+        }
+    }
+
+    /**
+     * Deletes the version of the API from SwaggerHub.
+     *
+     * @param swaggerHubRequest the request containing owner, API and version
+     * @throws GradleException if there is an error during the DELETE request
+     */
+    public void deleteVersion(final SwaggerHubRequest swaggerHubRequest) throws GradleException {
+        Request httpRequest =
+                new Request.Builder()
+                        .url(getVersionUrl(swaggerHubRequest).build())
+                        .addHeader("Authorization", token)
+                        .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                        .tag(Operation.class, Operation.DELETE)
+                        .delete()
+                        .build();
+        executeRemoval(httpRequest);
+    }
+
+    /**
+     * Unpublishes the version of the API, so it can be edited again but is kept on SwaggerHub.
+     *
+     * @param swaggerHubRequest the request containing owner, API and version
+     * @throws GradleException if there is an error during the PUT request
+     */
+    public void unpublishVersion(final SwaggerHubRequest swaggerHubRequest) throws GradleException {
+        HttpUrl httpUrl =
+                getVersionUrl(swaggerHubRequest)
+                        .addPathSegment("settings")
+                        .addPathSegment("lifecycle")
+                        .build();
+        Request httpRequest =
+                new Request.Builder()
+                        .url(httpUrl)
+                        .addHeader("Content-Type", "application/json; charset=utf-8")
+                        .addHeader("Authorization", token)
+                        .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                        .tag(Operation.class, Operation.UNPUBLISH)
+                        .put(
+                                RequestBody.create(
+                                        "{\"published\": false}",
+                                        MediaType.parse("application/json; charset=utf-8")))
+                        .build();
+        executeRemoval(httpRequest);
+    }
+
+    /**
+     * Executes a request deleting or unpublishing a version.
+     *
+     * @param httpRequest the request
+     * @throws GradleException if the request fails
+     */
+    private void executeRemoval(final Request httpRequest) throws GradleException {
+        try (Response response = client.newCall(httpRequest).execute()) {
+            LOGGER.debug(
+                    "{} {} answered {}", httpRequest.method(), httpRequest.url(), response.code());
+            if (!response.isSuccessful()) {
+                throw new GradleException(REMOVE_FAILED_ERROR + responseBody(response));
+            }
+        } catch (IOException e) {
+            throw new GradleException(REMOVE_FAILED_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Downloads the API definition without blocking the calling thread. Like {@link
+     * #getDefinition(SwaggerHubRequest)} it returns the definition in the requested {@code format}
+     * as served by SwaggerHub, so {@code fileFormat} is not applied.
+     *
+     * <p>The call runs on the dispatcher of the HTTP client, whose request limits also bound the
+     * number of concurrent asynchronous calls. Cancelling the returned future cancels the call.
+     *
+     * <p>With a definition cache the definition is taken from the cache, including in offline mode.
+     * The lookup runs on the executor of the dispatcher, since a stale entry is reloaded with a
+     * blocking call, and cancelling the future does not interrupt it. Bundled definitions are
+     * written by {@link #downloadDefinition(SwaggerHubRequest, Path)} only, a request with {@code
+     * bundle} set completes exceptionally.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @return a future completed with the API definition, or exceptionally with a {@link
+     *     GradleException}
+     */
+    public CompletableFuture<String> getDefinitionAsync(final SwaggerHubRequest swaggerHubRequest) {
+        if (Boolean.TRUE.equals(swaggerHubRequest.getBundle())) {
+            return CompletableFuture.failedFuture(
+                    new GradleException(
+                            DOWNLOAD_FAILED_ERROR
+                                    + "bundled definitions can only be downloaded into a file"));
+        }
+        if (cache != null) {
+            return CompletableFuture.supplyAsync(
+                    () -> {
+                        try {
+                            return cachedDefinition(swaggerHubRequest).read();
+                        } catch (UncheckedIOException e) {
+                            throw new GradleException(
+                                    DOWNLOAD_FAILED_ERROR + e.getCause().getMessage(), e);
+                        }
+                    },
+                    client.dispatcher().executorService());
+        }
+        HttpUrl httpUrl = getDownloadUrl(swaggerHubRequest);
+        MediaType mediaType = getMediaType(swaggerHubRequest);
+        return enqueue(
+                buildGetRequest(httpUrl, mediaType, swaggerHubRequest),
+                DOWNLOAD_FAILED_ERROR,
+                response -> {
+                    ResponseBody body = response.body();
+                    return body == null ? "" : body.string();
+                });
+    }
+
+    /**
+     * Uploads the API definition without blocking the calling thread. Cancelling the returned
+     * future cancels the call.
+     *
+     * @param swaggerHubRequest the request containing API details and the definition
+     * @return a future completed when the upload succeeded, or exceptionally with a {@link
+     *     GradleException}
+     */
+    public CompletableFuture<Void> saveDefinitionAsync(final SwaggerHubRequest swaggerHubRequest) {
+        return enqueue(
+                buildUploadRequest(swaggerHubRequest), UPLOAD_FAILED_ERROR, response -> null);
+    }
+
+    /**
+     * Sets the default version of the API without blocking the calling thread. Cancelling the
+     * returned future cancels the call.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @return a future completed when the default version was set, or exceptionally with a {@link
+     *     GradleException}
+     */
+    public CompletableFuture<Void> setDefaultVersionAsync(
+            final SwaggerHubRequest swaggerHubRequest) {
+        HttpUrl httpUrl = getDefaultVersionUrl(swaggerHubRequest);
+        return enqueue(
+                buildPutRequest(httpUrl, swaggerHubRequest.getVersion()),
+                UPLOAD_FAILED_ERROR,
+                response -> null);
+    }
+
+    /**
+     * Enqueues a call and bridges its callback to a future. Cancelling the future cancels the call,
+     * and a call cancelled elsewhere, e.g. when the build service shuts down, completes the future
+     * exceptionally.
+     *
+     * @param request the request to execute
+     * @param errorPrefix the prefix of error messages
+     * @param handler converts a successful response into the result
+     * @param <T> the result type
+     * @return the future of the result
+     */
+    private <T> CompletableFuture<T> enqueue(
+            final Request request, final String errorPrefix, final ResponseHandler<T> handler) {
+        Call call = client.newCall(request);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete(
+                (result, failure) -> {
+                    if (future.isCancelled()) {
+                        call.cancel();
+                    }
+                });
+        call.enqueue(
+                new Callback() {
+                    @Override
+                    public void onResponse(final Call call, final Response response) {
+                        try (response) {
+                            if (!response.isSuccessful()) {
+                                future.completeExceptionally(
+                                        new GradleException(errorPrefix + responseBody(response)));
+                                return;
+                            }
+                            future.complete(handler.handle(response));
+                        } catch (IOException | RuntimeException e) {
+                            future.completeExceptionally(
+                                    new GradleException(errorPrefix + e.getMessage(), e));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(final Call call, final IOException e) {
+                        future.completeExceptionally(
+                                new GradleException(errorPrefix + e.getMessage(), e));
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * Converts a successful response into the result of an asynchronous call.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        /**
+         * Reads the result from the response.
+         *
+         * @param response the successful response
+         * @return the result
+         * @throws IOException if the response body cannot be read
+         */
+        T handle(Response response) throws IOException;
+    }
+
+    /** Writes the content of a file. */
+    @FunctionalInterface
+    private interface ContentWriter {
+        /**
+         * Writes the content.
+         *
+         * @param out the stream of the file, closed by the caller
+         * @throws IOException if the content cannot be written
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
     /**
      * Builds a GET request for downloading the API definition.
      *
      * @param httpUrl the URL to send the request to
      * @param mediaType the media type for the request
+     * @param swaggerHubRequest the request providing optional cache validators
      * @return a configured Request object
      */
-    private Request buildGetRequest(final HttpUrl httpUrl, final MediaType mediaType) {
+    private Request buildGetRequest(
+            final HttpUrl httpUrl,
+            final MediaType mediaType,
+            final SwaggerHubRequest swaggerHubRequest) {
         Request.Builder requestBuilder =
                 new Request.Builder()
                         .url(httpUrl)
                         .addHeader("Accept", mediaType.toString())
-                        .addHeader("User-Agent", "swaggerhub-gradle-plugin");
+                        .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                        .tag(Operation.class, Operation.DOWNLOAD);
+        // no explicit Accept-Encoding, so OkHttp requests gzip and decompresses transparently
         if (token != null) {
             requestBuilder.addHeader("Authorization", token);
         }
+        if (swaggerHubRequest.getETag() != null) {
+            requestBuilder.addHeader("If-None-Match", swaggerHubRequest.getETag());
+        }
+        if (swaggerHubRequest.getLastModified() != null) {
+            requestBuilder.addHeader("If-Modified-Since", swaggerHubRequest.getLastModified());
+        }
         return requestBuilder.build();
     }
 
+    /**
+     * Builds the POST request uploading the definition of the given request, gzip compressed if
+     * requested.
+     *
+     * @param swaggerHubRequest the request containing API details and the definition
+     * @return a configured Request object
+     */
+    private Request buildUploadRequest(final SwaggerHubRequest swaggerHubRequest) {
+        HttpUrl httpUrl = getUploadUrl(swaggerHubRequest);
+        MediaType mediaType = getMediaType(swaggerHubRequest);
+        RequestBody body = definitionBody(swaggerHubRequest, mediaType);
+        boolean compress = Boolean.TRUE.equals(swaggerHubRequest.getCompress());
+        return buildPostRequest(httpUrl, mediaType, compress ? gzip(body) : body, compress);
+    }
+
     /**
      * Builds a POST request for uploading the API definition.
      *
      * @param httpUrl the URL to send the request to
      * @param mediaType the media type for the request
-     * @param content the content of the API definition
+     * @param body the body carrying the API definition
+     * @param compressed whether the body is gzip compressed
      * @return a configured Request object
      */
     private Request buildPostRequest(
-            final HttpUrl httpUrl, final MediaType mediaType, final String content) {
-        return new Request.Builder()
-                .url(httpUrl)
-                .addHeader("Content-Type", mediaType.toString())
-                .addHeader("Authorization", token)
-                .addHeader("User-Agent", "swaggerhub-gradle-plugin")
-                .post(RequestBody.create(content, mediaType))
-                .build();
+            final HttpUrl httpUrl,
+            final MediaType mediaType,
+            final RequestBody body,
+            final boolean compressed) {
+        Request.Builder requestBuilder =
+                new Request.Builder()
+                        .url(httpUrl)
+                        .addHeader("Content-Type", mediaType.toString())
+                        .addHeader("Authorization", token)
+                        .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                        .tag(Operation.class, Operation.UPLOAD);
+        if (compressed) {
+            requestBuilder.addHeader("Content-Encoding", "gzip");
+        }
+        return requestBuilder.post(body).build();
+    }
+
+    /**
+     * Wraps a request body so it is gzip compressed while it is written. The compressed length is
+     * not known up front, so the body is sent chunked (or as a single HTTP/2 stream).
+     *
+     * @param body the body to compress
+     * @return the compressing body
+     */
+    private static RequestBody gzip(final RequestBody body) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(final BufferedSink sink) throws IOException {
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                    body.writeTo(gzipSink);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates the upload body. A definition file is streamed from disk while the request is
+     * written, so it is never loaded into memory; otherwise the in-memory definition is used.
+     * Canonical definitions and definitions stored in another format are converted while the body
+     * is written, so their length is unknown and the body is sent chunked.
+     *
+     * @param swaggerHubRequest the request holding the definition file or content
+     * @param mediaType the media type of the definition
+     * @return the request body
+     */
+    private RequestBody definitionBody(
+            final SwaggerHubRequest swaggerHubRequest, final MediaType mediaType) {
+        Path definitionFile = swaggerHubRequest.getDefinitionFile();
+        if (Boolean.TRUE.equals(swaggerHubRequest.getCanonicalize())
+                || DefinitionConverter.needsConversion(
+                        swaggerHubRequest.getFileFormat(), swaggerHubRequest.getFormat())) {
+            return convertedBody(swaggerHubRequest, mediaType);
+        }
+        if (definitionFile != null) {
+            return RequestBody.create(definitionFile.toFile(), mediaType);
+        }
+        String content = swaggerHubRequest.getSwagger();
+        return RequestBody.create(content == null ? "" : content, mediaType);
+    }
+
+    /**
+     * Creates an upload body writing the definition in the uploaded format, in canonical form if
+     * requested.
+     *
+     * @param swaggerHubRequest the request holding the definition file or content
+     * @param mediaType the media type of the definition
+     * @return the request body
+     */
+    private static RequestBody convertedBody(
+            final SwaggerHubRequest swaggerHubRequest, final MediaType mediaType) {
+        Path definitionFile = swaggerHubRequest.getDefinitionFile();
+        String content =
+                swaggerHubRequest.getSwagger() == null ? "" : swaggerHubRequest.getSwagger();
+        String format = swaggerHubRequest.getFormat();
+        String fileFormat =
+                swaggerHubRequest.getFileFormat() == null
+                        ? format
+                        : swaggerHubRequest.getFileFormat();
+        boolean canonicalize = Boolean.TRUE.equals(swaggerHubRequest.getCanonicalize());
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(final BufferedSink sink) throws IOException {
+                try (InputStream in =
+                        definitionFile != null
+                                ? Files.newInputStream(definitionFile)
+                                : new ByteArrayInputStream(
+                                        content.getBytes(StandardCharsets.UTF_8))) {
+                    if (canonicalize) {
+                        DefinitionCanonicalizer.canonicalize(
+                                in,
+                                DefinitionConverter.isYaml(fileFormat),
+                                sink.outputStream(),
+                                DefinitionConverter.isYaml(format));
+                    } else {
+                        DefinitionConverter.convert(in, fileFormat, sink.outputStream(), format);
+                    }
+                }
+            }
+        };
     }
 
     /**
@@ -253,6 +1100,7 @@ public class SwaggerHubClient {
                 .addHeader("Content-Type", "application/json; charset=utf-8")
                 .addHeader("Authorization", token)
                 .addHeader("User-Agent", "swaggerhub-gradle-plugin")
+                .tag(Operation.class, Operation.SET_DEFAULT_VERSION)
                 .put(
                         RequestBody.create(
                                 jsonBody, MediaType.parse("application/json; charset=utf-8")))
@@ -272,6 +1120,17 @@ public class SwaggerHubClient {
                 .build();
     }
 
+    /**
+     * Constructs the URL of a single version of the API.
+     *
+     * @param swaggerHubRequest the request containing API details
+     * @return a HttpUrl.Builder pointing at the version
+     */
+    private HttpUrl.Builder getVersionUrl(final SwaggerHubRequest swaggerHubRequest) {
+        return getBaseUrl(swaggerHubRequest.getOwner(), swaggerHubRequest.getApi())
+                .addPathSegment(swaggerHubRequest.getVersion());
+    }
+
     /**
      * Constructs the upload URL for the API definition.
      *
@@ -307,6 +1166,16 @@ public class SwaggerHubClient {
      * @return a HttpUrl.Builder configured with the base URL
      */
     private HttpUrl.Builder getBaseUrl(final String owner, final String api) {
+        return getOwnerUrl(owner).addPathSegment(api);
+    }
+
+    /**
+     * Constructs the URL listing the APIs of an owner.
+     *
+     * @param owner the owner of the APIs
+     * @return a HttpUrl.Builder configured with the owner URL
+     */
+    private HttpUrl.Builder getOwnerUrl(final String owner) {
         HttpUrl.Builder builder = new HttpUrl.Builder().scheme(protocol).host(host).port(port);
         if (Boolean.TRUE.equals(onPremise)) {
             String suffix = onPremiseAPISuffix == null ? "v1" : onPremiseAPISuffix;
@@ -316,7 +1185,83 @@ public class SwaggerHubClient {
                 }
             }
         }
-        return builder.addPathSegment(APIS).addPathSegment(owner).addPathSegment(api);
+        return builder.addPathSegment(APIS).addPathSegment(owner);
+    }
+
+    /**
+     * Copies the response body into a temporary file and moves it over the target.
+     *
+     * @param body the response body, may be {@code null}
+     * @param target the file to replace
+     * @param swaggerHubRequest the request selecting the format of the file
+     * @throws IOException if the body cannot be read or the file cannot be written
+     */
+    private void writeAtomically(
+            final ResponseBody body, final Path target, final SwaggerHubRequest swaggerHubRequest)
+            throws IOException {
+        try (InputStream in = body == null ? InputStream.nullInputStream() : body.byteStream()) {
+            writeAtomically(in, target, swaggerHubRequest);
+        }
+    }
+
+    /**
+     * Copies a stream into a temporary file and moves it over the target. The content is converted
+     * on the fly when the request asks for a file format other than the downloaded one.
+     *
+     * @param in the content, read to the end but not closed
+     * @param target the file to replace
+     * @param swaggerHubRequest the request selecting the format of the file
+     * @throws IOException if the content cannot be read or the file cannot be written
+     */
+    private void writeAtomically(
+            final InputStream in, final Path target, final SwaggerHubRequest swaggerHubRequest)
+            throws IOException {
+        writeAtomically(
+                target,
+                out -> {
+                    if (DefinitionConverter.needsConversion(
+                            swaggerHubRequest.getFileFormat(), swaggerHubRequest.getFormat())) {
+                        DefinitionConverter.convert(
+                                in,
+                                swaggerHubRequest.getFormat(),
+                                out,
+                                swaggerHubRequest.getFileFormat());
+                    } else {
+                        in.transferTo(out);
+                    }
+                });
+    }
+
+    /**
+     * Writes a temporary file and moves it over the target, so a failed write leaves the previous
+     * file untouched.
+     *
+     * @param target the file to replace
+     * @param writer writes the content
+     * @throws IOException if the content cannot be written
+     */
+    private void writeAtomically(final Path target, final ContentWriter writer) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path directory = absoluteTarget.getParent();
+        Files.createDirectories(directory);
+        Path temp =
+                Files.createTempFile(directory, absoluteTarget.getFileName().toString(), ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            try {
+                Files.move(
+                        temp,
+                        absoluteTarget,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absoluteTarget, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
     }
 
     private String responseBody(final Response response) throws IOException {
@@ -31,6 +31,8 @@
  */
 package io.github.ludy87.swagger.swaggerhub.v2.client;
 
+import java.nio.file.Path;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -39,7 +41,7 @@ import lombok.ToString;
 
 /** Represents the payload sent to SwaggerHub operations. */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
@@ -56,21 +58,50 @@ public class SwaggerHubRequest {
     /** API definition content (Swagger/OpenAPI specification). */
     private String swagger;
 
+    /** File holding the API definition, streamed instead of {@link #swagger} when set. */
+    private Path definitionFile;
+
     /** API format such as OAS version. */
     private String oas;
 
     /** Desired output format. */
     @Builder.Default private String format = "json";
 
+    /**
+     * Format of the local definition file, converted from or to {@link #format} if it differs. The
+     * file is in {@link #format} when not set.
+     */
+    private String fileFormat;
+
     /** Indicates whether the API is private. */
     @Builder.Default private Boolean isPrivate = false;
 
     /** Whether resolved API definition should be retrieved. */
     @Builder.Default private Boolean resolved = false;
 
+    /**
+     * Resolves external references on the client instead of on SwaggerHub: the definition is
+     * downloaded unresolved and the referenced components are bundled into it.
+     */
+    @Builder.Default private Boolean bundle = false;
+
+    /** Compresses the uploaded definition with gzip. */
+    @Builder.Default private Boolean compress = false;
+
+    /** Uploads the canonical form of the definition, see {@link DefinitionCanonicalizer}. */
+    @Builder.Default private Boolean canonicalize = false;
+
     /** Indicates that the request targets an on-premise installation. */
     @Builder.Default private Boolean onPremise = false;
 
     /** API suffix for on-premise installations. */
     @Builder.Default private String onPremiseAPISuffix = "v1";
+
+    /** ETag of a previously downloaded definition, sent as {@code If-None-Match}. */
+    private String eTag;
+
+    /**
+     * Last-Modified value of a previously downloaded definition, sent as {@code If-Modified-Since}.
+     */
+    private String lastModified;
 }
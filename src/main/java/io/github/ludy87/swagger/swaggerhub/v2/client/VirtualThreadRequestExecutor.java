@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs every call on its own virtual thread; a semaphore bounds the calls in flight. The JDK 21 API
+ * is looked up reflectively because the plugin is compiled for Java 17.
+ */
+final class VirtualThreadRequestExecutor implements RequestExecutor {
+    /** {@code Executors.newVirtualThreadPerTaskExecutor()}, or {@code null} before JDK 21. */
+    private static final Method NEW_EXECUTOR = findFactory();
+
+    /** Executor starting one virtual thread per call. */
+    private final ExecutorService executor;
+
+    /** Permits for the calls in flight. */
+    private final Semaphore permits;
+
+    VirtualThreadRequestExecutor(final int maxConcurrency) {
+        try {
+            executor = (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+        permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Checks whether the running JDK supports virtual threads.
+     *
+     * @return {@code true} on JDK 21 and newer
+     */
+    static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    @Override
+    public <T> Future<T> submit(final Callable<T> call) {
+        return executor.submit(
+                () -> {
+                    // blocking a virtual thread is cheap, so waiting for a permit costs nothing
+                    permits.acquire();
+                    try {
+                        return call.call();
+                    } finally {
+                        permits.release();
+                    }
+                });
+    }
+
+    @Override
+    public boolean isVirtual() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static Method findFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.services;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestMetrics.CallRecord;
+
+/**
+ * Writes the request metrics of a build: every call to {@code swaggerhub-calls.csv} and the latency
+ * percentiles per operation type to {@code swaggerhub-metrics.json}.
+ */
+final class MetricsReport {
+    /** File name of the per-call CSV. */
+    static final String CSV_FILE = "swaggerhub-calls.csv";
+
+    /** File name of the JSON summary. */
+    static final String JSON_FILE = "swaggerhub-metrics.json";
+
+    /** Percentiles reported for every operation type. */
+    private static final int[] PERCENTILES = {50, 95, 99};
+
+    /** Mapper of the JSON summary. */
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private MetricsReport() {}
+
+    /**
+     * Writes the report files into the given directory.
+     *
+     * @param directory the report directory, created if missing
+     * @param calls the recorded calls
+     * @param retries the number of retries of the build
+     * @param throttledMillis the time calls waited for the rate limit
+     * @throws IOException if a file cannot be written
+     */
+    static void write(
+            final Path directory,
+            final List<CallRecord> calls,
+            final long retries,
+            final long throttledMillis)
+            throws IOException {
+        Files.createDirectories(directory);
+        writeCsv(directory.resolve(CSV_FILE), calls);
+        writeJson(directory.resolve(JSON_FILE), calls, retries, throttledMillis);
+    }
+
+    private static void writeCsv(final Path file, final List<CallRecord> calls) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(
+                    "operation,method,url,status,failed,dnsMs,connectMs,tlsMs,ttfbMs,totalMs,"
+                            + "bytesOut,bytesIn\n");
+            for (CallRecord call : calls) {
+                out.write(
+                        String.join(
+                                ",",
+                                call.getOperation(),
+                                call.getMethod(),
+                                csv(call.getUrl()),
+                                String.valueOf(call.getStatus()),
+                                String.valueOf(call.isFailed()),
+                                millis(call.getDnsMillis()),
+                                millis(call.getConnectMillis()),
+                                millis(call.getTlsMillis()),
+                                millis(call.getTtfbMillis()),
+                                millis(call.getTotalMillis()),
+                                String.valueOf(call.getBytesOut()),
+                                String.valueOf(call.getBytesIn())));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static void writeJson(
+            final Path file,
+            final List<CallRecord> calls,
+            final long retries,
+            final long throttledMillis)
+            throws IOException {
+        Map<String, List<CallRecord>> byOperation =
+                calls.stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        CallRecord::getOperation,
+                                        TreeMap::new,
+                                        Collectors.toList()));
+
+        ObjectNode json = JSON_MAPPER.createObjectNode();
+        json.put("calls", calls.size());
+        json.put("retries", retries);
+        json.put("rateLimitWaitMillis", throttledMillis);
+        ObjectNode operations = json.putObject("operations");
+        for (Map.Entry<String, List<CallRecord>> entry : byOperation.entrySet()) {
+            List<CallRecord> records = entry.getValue();
+            ObjectNode operation = operations.putObject(entry.getKey());
+            operation.put("count", records.size());
+            operation.put("failed", records.stream().filter(CallRecord::isFailed).count());
+            operation.put("bytesOut", records.stream().mapToLong(CallRecord::getBytesOut).sum());
+            operation.put("bytesIn", records.stream().mapToLong(CallRecord::getBytesIn).sum());
+            putPercentiles(operation.putObject("ttfbMillis"), records, CallRecord::getTtfbMillis);
+            putPercentiles(operation.putObject("totalMillis"), records, CallRecord::getTotalMillis);
+        }
+        JSON_MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), json);
+    }
+
+    private static void putPercentiles(
+            final ObjectNode json,
+            final List<CallRecord> records,
+            final ToDoubleFunction<CallRecord> metric) {
+        double[] values = records.stream().mapToDouble(metric).sorted().toArray();
+        for (int percentile : PERCENTILES) {
+            json.put("p" + percentile, rounded(percentile(values, percentile)));
+        }
+        json.put("max", rounded(values[values.length - 1]));
+    }
+
+    /**
+     * Returns a percentile using the nearest-rank method.
+     *
+     * @param sorted the values in ascending order, not empty
+     * @param percentile the percentile between 1 and 100
+     * @return the smallest value greater than or equal to the given share of values
+     */
+    static double percentile(final double[] sorted, final int percentile) {
+        int rank = (int) Math.ceil(percentile / 100d * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String millis(final double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static double rounded(final double value) {
+        return Math.round(value * 1000) / 1000d;
+    }
+
+    private static String csv(final String value) {
+        return value.contains(",") || value.contains("\"")
+                ? '"' + value.replace("\"", "\"\"") + '"'
+                : value;
+    }
+}
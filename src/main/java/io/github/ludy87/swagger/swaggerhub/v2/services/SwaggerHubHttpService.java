@@ -0,0 +1,736 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import io.github.ludy87.swagger.swaggerhub.v2.DebugLogger;
+import io.github.ludy87.swagger.swaggerhub.v2.client.DefinitionCache;
+import io.github.ludy87.swagger.swaggerhub.v2.client.RateLimitInterceptor;
+import io.github.ludy87.swagger.swaggerhub.v2.client.ReferenceCache;
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestMetrics;
+import io.github.ludy87.swagger.swaggerhub.v2.client.RetryInterceptor;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Build service owning the single {@link OkHttpClient} used by all SwaggerHub tasks of a build.
+ *
+ * <p>Sharing the client lets tasks reuse pooled connections and TLS sessions. The client is
+ * configured through Gradle properties, e.g. {@code swaggerhub.http.maxIdleConnections=10} in
+ * {@code gradle.properties}, and is shut down when the build finishes.
+ */
+public abstract class SwaggerHubHttpService
+        implements BuildService<SwaggerHubHttpService.Params>, AutoCloseable {
+    /** Name under which the service is registered. */
+    public static final String NAME = "swaggerhubHttp";
+
+    /** Logger instance for the service. */
+    private static final Logger LOGGER = Logging.getLogger(SwaggerHubHttpService.class);
+
+    /** Prefix of the Gradle properties configuring the service. */
+    private static final String PROPERTY_PREFIX = "swaggerhub.http.";
+
+    /** Default number of idle connections kept in the pool. */
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    /** Default keep-alive of idle connections in seconds. */
+    private static final long DEFAULT_KEEP_ALIVE_SECONDS = 300;
+
+    /** Default maximum number of concurrent asynchronous requests. */
+    private static final int DEFAULT_MAX_REQUESTS = 64;
+
+    /** Default maximum number of concurrent asynchronous requests per host. */
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 10;
+
+    /** Default connect, read and write timeout in seconds. */
+    private static final long DEFAULT_TIMEOUT_SECONDS = 10;
+
+    /** Prefix of the Gradle properties configuring the rate limits. */
+    private static final String RATE_LIMIT_PREFIX = PROPERTY_PREFIX + "rateLimit.";
+
+    /** Prefix of the rate limit settings of a single token, followed by its fingerprint. */
+    private static final String TOKEN_LIMIT_PREFIX = "token.";
+
+    /** Name of the rate limit setting for permits per second. */
+    private static final String PERMITS_PER_SECOND = "permitsPerSecond";
+
+    /** Name of the rate limit setting for the burst size. */
+    private static final String BURST = "burst";
+
+    /** Default HTTP version selection, negotiated by OkHttp. */
+    private static final String DEFAULT_HTTP_VERSION = "auto";
+
+    /** Prefix of the Gradle properties configuring the definition cache. */
+    private static final String CACHE_PREFIX = "swaggerhub.cache.";
+
+    /** Default maximum size of the definition cache in megabytes. */
+    private static final long DEFAULT_CACHE_MAX_SIZE_MB = 100;
+
+    /** Bytes per megabyte. */
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    /** Parameters of the HTTP service. */
+    public interface Params extends BuildServiceParameters {
+        /**
+         * Returns the number of idle connections kept in the connection pool.
+         *
+         * @return the maximum number of idle connections
+         */
+        Property<Integer> getMaxIdleConnections();
+
+        /**
+         * Returns how long idle connections are kept alive.
+         *
+         * @return the keep-alive duration in seconds
+         */
+        Property<Long> getKeepAliveSeconds();
+
+        /**
+         * Returns the maximum number of concurrent asynchronous requests.
+         *
+         * @return the dispatcher request limit
+         */
+        Property<Integer> getMaxRequests();
+
+        /**
+         * Returns the maximum number of concurrent asynchronous requests per host.
+         *
+         * @return the dispatcher per-host request limit
+         */
+        Property<Integer> getMaxRequestsPerHost();
+
+        /**
+         * Returns the connect timeout.
+         *
+         * @return the connect timeout in seconds, {@code 0} for none
+         */
+        Property<Long> getConnectTimeoutSeconds();
+
+        /**
+         * Returns the read timeout.
+         *
+         * @return the read timeout in seconds, {@code 0} for none
+         */
+        Property<Long> getReadTimeoutSeconds();
+
+        /**
+         * Returns the write timeout.
+         *
+         * @return the write timeout in seconds, {@code 0} for none
+         */
+        Property<Long> getWriteTimeoutSeconds();
+
+        /**
+         * Returns the timeout of a complete call.
+         *
+         * @return the call timeout in seconds, {@code 0} for none
+         */
+        Property<Long> getCallTimeoutSeconds();
+
+        /**
+         * Returns the HTTP version selection: {@code auto} negotiates HTTP/2 via ALPN on {@code
+         * https} and falls back to HTTP/1.1, {@code http1} always uses HTTP/1.1 and {@code h2c}
+         * uses HTTP/2 with prior knowledge over plain {@code http}.
+         *
+         * @return the HTTP version selection
+         */
+        Property<String> getHttpVersion();
+
+        /**
+         * Returns the maximum number of attempts per call, including the first one.
+         *
+         * @return the maximum number of attempts, {@code 1} disables retries
+         */
+        Property<Integer> getRetryMaxAttempts();
+
+        /**
+         * Returns the backoff before the first retry.
+         *
+         * @return the initial delay in milliseconds
+         */
+        Property<Long> getRetryInitialDelayMillis();
+
+        /**
+         * Returns the upper bound of a single backoff, also applied to {@code Retry-After}.
+         *
+         * @return the maximum delay in milliseconds
+         */
+        Property<Long> getRetryMaxDelayMillis();
+
+        /**
+         * Returns the rate limit settings, i.e. all Gradle properties starting with {@code
+         * swaggerhub.http.rateLimit.}.
+         *
+         * @return the rate limit properties by name
+         */
+        MapProperty<String, String> getRateLimits();
+
+        /**
+         * Returns whether downloads are served from the local definition cache.
+         *
+         * @return {@code true} to use the definition cache
+         */
+        Property<Boolean> getCacheEnabled();
+
+        /**
+         * Returns the directory of the definition cache, by default below the Gradle user home.
+         *
+         * @return the cache directory
+         */
+        DirectoryProperty getCacheDirectory();
+
+        /**
+         * Returns the age up to which cached definitions are used without asking SwaggerHub.
+         * Definitions already fetched in the current build are always reused.
+         *
+         * @return the time to live in seconds, {@code 0} to revalidate in every build
+         */
+        Property<Long> getCacheTtlSeconds();
+
+        /**
+         * Returns the size above which the least recently used definitions are evicted.
+         *
+         * @return the maximum cache size in megabytes
+         */
+        Property<Long> getCacheMaxSizeMb();
+
+        /**
+         * Returns whether Gradle runs in offline mode, in which definitions are only served from
+         * the definition cache.
+         *
+         * @return {@code true} if {@code --offline} is set
+         */
+        Property<Boolean> getOffline();
+
+        /**
+         * Returns whether timings and sizes of all calls are recorded and reported.
+         *
+         * @return {@code true} to write the request metrics report
+         */
+        Property<Boolean> getMetricsEnabled();
+
+        /**
+         * Returns the directory of the request metrics report.
+         *
+         * @return the report directory, {@code build/reports/swaggerhub} of the root project
+         */
+        DirectoryProperty getReportDirectory();
+
+        /**
+         * Returns the file {@link DebugLogger} appends to, if set.
+         *
+         * @return the debug log file
+         */
+        RegularFileProperty getDebugLogFile();
+    }
+
+    /** HTTP client shared by all tasks. */
+    private final OkHttpClient client;
+
+    /** Retry policy of the client, also counting the retries of the build. */
+    private final RetryInterceptor retryInterceptor;
+
+    /** Rate limiter shared by all calls of the build. */
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /** Timings and sizes of the calls of the build. */
+    private final RequestMetrics requestMetrics = new RequestMetrics();
+
+    /** Local definition cache, {@code null} if disabled. */
+    private final DefinitionCache definitionCache;
+
+    /** Documents referenced by bundled definitions, fetched once per build. */
+    private final ReferenceCache referenceCache = new ReferenceCache();
+
+    /** Creates the shared HTTP client from the service parameters. */
+    public SwaggerHubHttpService() {
+        Params params = getParameters();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(params.getMaxRequests().get());
+        dispatcher.setMaxRequestsPerHost(params.getMaxRequestsPerHost().get());
+
+        retryInterceptor =
+                new RetryInterceptor(
+                        params.getRetryMaxAttempts().get(),
+                        params.getRetryInitialDelayMillis().get(),
+                        params.getRetryMaxDelayMillis().get());
+        rateLimitInterceptor = rateLimiter(params.getRateLimits().get());
+
+        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        if (params.getMetricsEnabled().get()) {
+            clientBuilder.eventListenerFactory(requestMetrics);
+        }
+        client =
+                clientBuilder
+                        .dispatcher(dispatcher)
+                        .addInterceptor(retryInterceptor)
+                        .addInterceptor(rateLimitInterceptor)
+                        .connectionPool(
+                                new ConnectionPool(
+                                        params.getMaxIdleConnections().get(),
+                                        params.getKeepAliveSeconds().get(),
+                                        TimeUnit.SECONDS))
+                        .connectTimeout(params.getConnectTimeoutSeconds().get(), TimeUnit.SECONDS)
+                        .readTimeout(params.getReadTimeoutSeconds().get(), TimeUnit.SECONDS)
+                        .writeTimeout(params.getWriteTimeoutSeconds().get(), TimeUnit.SECONDS)
+                        .callTimeout(params.getCallTimeoutSeconds().get(), TimeUnit.SECONDS)
+                        .protocols(protocols(params.getHttpVersion().get()))
+                        .build();
+
+        if (params.getDebugLogFile().isPresent()) {
+            DebugLogger.setLogFile(params.getDebugLogFile().get().getAsFile().toPath());
+        }
+
+        // offline builds read the cache even if it is not enabled for online use
+        definitionCache =
+                params.getCacheEnabled().get() || params.getOffline().get()
+                        ? new DefinitionCache(
+                                params.getCacheDirectory().get().getAsFile().toPath(),
+                                Duration.ofSeconds(params.getCacheTtlSeconds().get()),
+                                params.getCacheMaxSizeMb().get() * BYTES_PER_MB,
+                                params.getOffline().get())
+                        : null;
+    }
+
+    /**
+     * Returns the shared HTTP client.
+     *
+     * @return the HTTP client
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Returns the local definition cache shared by all downloads of the build.
+     *
+     * @return the definition cache, or {@code null} if it is disabled
+     */
+    public DefinitionCache getDefinitionCache() {
+        return definitionCache;
+    }
+
+    /**
+     * Returns the documents referenced by bundled definitions, shared by all downloads of the
+     * build.
+     *
+     * @return the reference cache
+     */
+    public ReferenceCache getReferenceCache() {
+        return referenceCache;
+    }
+
+    /**
+     * Creates a client for a SwaggerHub instance that executes its requests with the shared HTTP
+     * client and uses the definition and reference caches of the build.
+     *
+     * @param host the host of the SwaggerHub instance
+     * @param port the port of the SwaggerHub instance
+     * @param protocol the protocol (http or https)
+     * @param token the authentication token, may be {@code null}
+     * @param onPremise whether this is an on-premise instance
+     * @param onPremiseAPISuffix the API suffix for on-premise instances
+     * @return the client
+     */
+    public SwaggerHubClient createClient(
+            final String host,
+            final int port,
+            final String protocol,
+            final String token,
+            final boolean onPremise,
+            final String onPremiseAPISuffix) {
+        return SwaggerHubClient.builder()
+                .host(host)
+                .port(port)
+                .protocol(protocol)
+                .token(token)
+                .onPremise(onPremise)
+                .onPremiseAPISuffix(onPremiseAPISuffix)
+                .client(client)
+                .cache(definitionCache)
+                .references(referenceCache)
+                .build();
+    }
+
+    /**
+     * Returns whether Gradle runs in offline mode.
+     *
+     * @return {@code true} if no SwaggerHub requests should be made for downloads
+     */
+    public boolean isOffline() {
+        return getParameters().getOffline().get();
+    }
+
+    /**
+     * Returns the number of retries performed in this build.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retryInterceptor.getRetryCount();
+    }
+
+    /**
+     * Returns the timings and sizes of the calls made so far.
+     *
+     * @return the request metrics
+     */
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    /**
+     * Cancels outstanding calls and releases pooled connections at the end of the build, and
+     * reports the retries and request metrics of the build. Pending debug log messages are written
+     * as well, and the debug log file is reset to its default for the next build of the daemon.
+     */
+    @Override
+    public void close() {
+        writeMetricsReport();
+        DebugLogger.flush();
+        DebugLogger.resetLogFile();
+        if (retryInterceptor.getRetryCount() > 0) {
+            LOGGER.lifecycle(
+                    "SwaggerHub requests were retried {} times, {} calls failed after all attempts",
+                    retryInterceptor.getRetryCount(),
+                    retryInterceptor.getExhaustedCount());
+        }
+        if (rateLimitInterceptor.getThrottledMillis() > 0) {
+            LOGGER.info(
+                    "SwaggerHub requests waited {} ms for the rate limit",
+                    rateLimitInterceptor.getThrottledMillis());
+        }
+        LOGGER.debug("Shutting down SwaggerHub HTTP client");
+        client.dispatcher().cancelAll();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    /** Writes the request metrics report, a failure only costs the report. */
+    private void writeMetricsReport() {
+        List<RequestMetrics.CallRecord> calls = requestMetrics.getCalls();
+        if (!getParameters().getMetricsEnabled().get() || calls.isEmpty()) {
+            return;
+        }
+        Path directory = getParameters().getReportDirectory().get().getAsFile().toPath();
+        try {
+            MetricsReport.write(
+                    directory,
+                    calls,
+                    retryInterceptor.getRetryCount(),
+                    rateLimitInterceptor.getThrottledMillis());
+            LOGGER.info(
+                    "SwaggerHub request metrics of {} calls written to {}",
+                    calls.size(),
+                    directory);
+        } catch (IOException e) {
+            LOGGER.warn(
+                    "Cannot write SwaggerHub request metrics to {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the service for the build of the given project unless it already exists.
+     *
+     * @param project the project requesting the service
+     * @return the provider of the shared service
+     */
+    public static Provider<SwaggerHubHttpService> registerIfAbsent(final Project project) {
+        ProviderFactory providers = project.getProviders();
+        Path projectDir = project.getProjectDir().toPath();
+        boolean offline = project.getGradle().getStartParameter().isOffline();
+        File defaultCacheDir =
+                new File(
+                        project.getGradle().getGradleUserHomeDir(),
+                        "caches/swaggerhub-definitions");
+        return project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(
+                        NAME,
+                        SwaggerHubHttpService.class,
+                        spec -> {
+                            Params params = spec.getParameters();
+                            params.getMaxIdleConnections()
+                                    .set(
+                                            intProperty(
+                                                    providers,
+                                                    "maxIdleConnections",
+                                                    DEFAULT_MAX_IDLE_CONNECTIONS));
+                            params.getKeepAliveSeconds()
+                                    .set(
+                                            longProperty(
+                                                    providers,
+                                                    "keepAliveSeconds",
+                                                    DEFAULT_KEEP_ALIVE_SECONDS));
+                            params.getMaxRequests()
+                                    .set(
+                                            intProperty(
+                                                    providers,
+                                                    "maxRequests",
+                                                    DEFAULT_MAX_REQUESTS));
+                            params.getMaxRequestsPerHost()
+                                    .set(
+                                            intProperty(
+                                                    providers,
+                                                    "maxRequestsPerHost",
+                                                    DEFAULT_MAX_REQUESTS_PER_HOST));
+                            params.getConnectTimeoutSeconds()
+                                    .set(
+                                            longProperty(
+                                                    providers,
+                                                    "connectTimeoutSeconds",
+                                                    DEFAULT_TIMEOUT_SECONDS));
+                            params.getReadTimeoutSeconds()
+                                    .set(
+                                            longProperty(
+                                                    providers,
+                                                    "readTimeoutSeconds",
+                                                    DEFAULT_TIMEOUT_SECONDS));
+                            params.getWriteTimeoutSeconds()
+                                    .set(
+                                            longProperty(
+                                                    providers,
+                                                    "writeTimeoutSeconds",
+                                                    DEFAULT_TIMEOUT_SECONDS));
+                            params.getCallTimeoutSeconds()
+                                    .set(longProperty(providers, "callTimeoutSeconds", 0L));
+                            params.getHttpVersion()
+                                    .set(
+                                            providers
+                                                    .gradleProperty(PROPERTY_PREFIX + "version")
+                                                    .orElse(DEFAULT_HTTP_VERSION));
+                            params.getRetryMaxAttempts()
+                                    .set(
+                                            intProperty(
+                                                    providers,
+                                                    "retry.maxAttempts",
+                                                    RetryInterceptor.DEFAULT_MAX_ATTEMPTS));
+                            params.getRetryInitialDelayMillis()
+                                    .set(
+                                            longProperty(
+                                                    providers,
+                                                    "retry.initialDelayMillis",
+                                                    RetryInterceptor.DEFAULT_INITIAL_DELAY_MILLIS));
+                            params.getRetryMaxDelayMillis()
+                                    .set(
+                                            longProperty(
+                                                    providers,
+                                                    "retry.maxDelayMillis",
+                                                    RetryInterceptor.DEFAULT_MAX_DELAY_MILLIS));
+                            params.getRateLimits()
+                                    .set(providers.gradlePropertiesPrefixedBy(RATE_LIMIT_PREFIX));
+                            params.getCacheEnabled()
+                                    .set(
+                                            providers
+                                                    .gradleProperty(CACHE_PREFIX + "enabled")
+                                                    .map(value -> Boolean.valueOf(value.trim()))
+                                                    .orElse(false));
+                            params.getCacheDirectory()
+                                    .fileProvider(
+                                            providers
+                                                    .gradleProperty(CACHE_PREFIX + "dir")
+                                                    .map(
+                                                            value ->
+                                                                    projectDir
+                                                                            .resolve(value.trim())
+                                                                            .toFile())
+                                                    .orElse(defaultCacheDir));
+                            params.getCacheTtlSeconds()
+                                    .set(
+                                            providers
+                                                    .gradleProperty(CACHE_PREFIX + "ttlSeconds")
+                                                    .map(value -> Long.valueOf(value.trim()))
+                                                    .orElse(0L));
+                            params.getCacheMaxSizeMb()
+                                    .set(
+                                            providers
+                                                    .gradleProperty(CACHE_PREFIX + "maxSizeMb")
+                                                    .map(value -> Long.valueOf(value.trim()))
+                                                    .orElse(DEFAULT_CACHE_MAX_SIZE_MB));
+                            params.getOffline().set(offline);
+                            params.getMetricsEnabled()
+                                    .set(
+                                            providers
+                                                    .gradleProperty(PROPERTY_PREFIX + "metrics")
+                                                    .map(value -> Boolean.valueOf(value.trim()))
+                                                    .orElse(false));
+                            params.getReportDirectory()
+                                    .set(
+                                            project.getRootProject()
+                                                    .getLayout()
+                                                    .getBuildDirectory()
+                                                    .dir("reports/swaggerhub"));
+                            params.getDebugLogFile()
+                                    .fileProvider(
+                                            providers
+                                                    .gradleProperty("swaggerhub.debug.logFile")
+                                                    .map(
+                                                            value ->
+                                                                    projectDir
+                                                                            .resolve(value.trim())
+                                                                            .toFile()));
+                        });
+    }
+
+    /**
+     * Creates the rate limiter from the {@code swaggerhub.http.rateLimit.*} properties. {@code
+     * permitsPerSecond} and {@code burst} set the default limit, {@code <host>.permitsPerSecond}
+     * and {@code <host>.burst} the limit of a single host, and {@code token.<sha256>.*} the limit
+     * of the token with the given fingerprint. The burst defaults to one second worth of permits.
+     *
+     * @param properties the rate limit properties by full name
+     * @return the rate limiter
+     * @throws GradleException if a property is not a number or unknown
+     */
+    private static RateLimitInterceptor rateLimiter(final Map<String, String> properties)
+            throws GradleException {
+        Map<String, Map<String, String>> settingsByHost = new HashMap<>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            String name = entry.getKey().substring(RATE_LIMIT_PREFIX.length());
+            int separator = name.lastIndexOf('.');
+            String host = separator < 0 ? "" : name.substring(0, separator);
+            String setting = name.substring(separator + 1);
+            if (!PERMITS_PER_SECOND.equals(setting) && !BURST.equals(setting)) {
+                throw new GradleException(
+                        "Unknown rate limit setting "
+                                + entry.getKey()
+                                + ", expected "
+                                + PERMITS_PER_SECOND
+                                + " or "
+                                + BURST);
+            }
+            settingsByHost
+                    .computeIfAbsent(host, key -> new HashMap<>())
+                    .put(setting, entry.getValue().trim());
+        }
+
+        RateLimitInterceptor.Limit defaultLimit =
+                limit(settingsByHost.remove(""), RateLimitInterceptor.Limit.UNLIMITED);
+        Map<String, RateLimitInterceptor.Limit> hostLimits = new HashMap<>();
+        Map<String, RateLimitInterceptor.Limit> tokenLimits = new HashMap<>();
+        settingsByHost.forEach(
+                (host, settings) -> {
+                    if (host.startsWith(TOKEN_LIMIT_PREFIX)) {
+                        tokenLimits.put(
+                                host.substring(TOKEN_LIMIT_PREFIX.length())
+                                        .toLowerCase(Locale.ROOT),
+                                limit(settings, defaultLimit));
+                    } else {
+                        hostLimits.put(host, limit(settings, defaultLimit));
+                    }
+                });
+        LOGGER.debug(
+                "SwaggerHub rate limits: default {}, by host {}, for {} tokens",
+                defaultLimit,
+                hostLimits,
+                tokenLimits.size());
+        return new RateLimitInterceptor(defaultLimit, hostLimits, tokenLimits);
+    }
+
+    /**
+     * Creates a limit from the settings of one host.
+     *
+     * @param settings the settings by name, may be {@code null}
+     * @param fallback the limit used when no rate is set
+     * @return the limit
+     * @throws GradleException if a setting is not a number
+     */
+    private static RateLimitInterceptor.Limit limit(
+            final Map<String, String> settings, final RateLimitInterceptor.Limit fallback) {
+        if (settings == null || !settings.containsKey(PERMITS_PER_SECOND)) {
+            return fallback;
+        }
+        try {
+            double permitsPerSecond = Double.parseDouble(settings.get(PERMITS_PER_SECOND));
+            int burst =
+                    settings.containsKey(BURST)
+                            ? Integer.parseInt(settings.get(BURST))
+                            : (int) Math.ceil(permitsPerSecond);
+            return new RateLimitInterceptor.Limit(permitsPerSecond, burst);
+        } catch (NumberFormatException e) {
+            throw new GradleException("Invalid rate limit setting: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Maps the HTTP version selection to the protocols offered by the client.
+     *
+     * @param httpVersion the HTTP version selection
+     * @return the protocols for the client
+     * @throws GradleException if the selection is unknown
+     */
+    private static List<Protocol> protocols(final String httpVersion) throws GradleException {
+        switch (httpVersion.trim().toLowerCase(Locale.ROOT)) {
+            case "auto":
+                return List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+            case "http1":
+                return Collections.singletonList(Protocol.HTTP_1_1);
+            case "h2c":
+                return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+            default:
+                throw new GradleException(
+                        "Unknown value '"
+                                + httpVersion
+                                + "' for "
+                                + PROPERTY_PREFIX
+                                + "version, expected auto, http1 or h2c");
+        }
+    }
+
+    private static Provider<Integer> intProperty(
+            final ProviderFactory providers, final String name, final int defaultValue) {
+        return providers
+                .gradleProperty(PROPERTY_PREFIX + name)
+                .map(value -> Integer.valueOf(value.trim()))
+                .orElse(defaultValue);
+    }
+
+    private static Provider<Long> longProperty(
+            final ProviderFactory providers, final String name, final long defaultValue) {
+        return providers
+                .gradleProperty(PROPERTY_PREFIX + name)
+                .map(value -> Long.valueOf(value.trim()))
+                .orElse(defaultValue);
+    }
+}
@@ -0,0 +1,2 @@
+/** Gradle build services shared by all SwaggerHub tasks of a build. */
+package io.github.ludy87.swagger.swaggerhub.v2.services;
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+import org.slf4j.Logger;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestExecutor;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Downloads several API definitions from SwaggerHub concurrently.
+ *
+ * <p>Every download is a blocking call through the definition cache, bundling and conversion, run
+ * on a {@link RequestExecutor} limited to {@code maxConcurrentRequests} calls. The calls share the
+ * connection pool of the service client, but not the request limits of its dispatcher, which only
+ * apply to enqueued calls.
+ */
+@Getter
+@DisableCachingByDefault(
+        because = "Task communicates with SwaggerHub and has network side effects.")
+public class BatchDownloadTask extends DefaultTask {
+    /** Logger instance for the task. */
+    private static final Logger LOGGER = Logging.getLogger(BatchDownloadTask.class);
+
+    /** Default HTTPS port used by SwaggerHub. */
+    private static final int DEFAULT_PORT = 443;
+
+    /** Default number of definitions downloaded at the same time. */
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /** Definitions to download. */
+    @Nested private final List<DownloadSpec> definitions = new ArrayList<>();
+
+    /** Optional authentication token. */
+    @Input @Optional private final Property<String> token;
+
+    /** Default response format for definitions that do not set one. */
+    @Input @Optional private final Property<String> format;
+
+    /** Default output file format for definitions that do not set one. */
+    @Input @Optional private final Property<String> fileFormat;
+
+    /** SwaggerHub host name. */
+    @Input @Optional private final Property<String> host;
+
+    /** SwaggerHub port. */
+    @Input @Optional private final Property<Integer> port;
+
+    /** Communication protocol. */
+    @Input @Optional private final Property<String> protocol;
+
+    /** Default resolved flag for definitions that do not set one. */
+    @Input @Optional private final Property<Boolean> resolved;
+
+    /** Default bundle flag for definitions that do not set one. */
+    @Input @Optional private final Property<Boolean> bundle;
+
+    /** Signals if an on-premise instance is used. */
+    @Input @Optional private final Property<Boolean> onPremise;
+
+    /** API suffix to use for on-premise SwaggerHub installations (e.g., "v1"). */
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Maximum number of definitions downloaded at the same time. */
+    @Input @Optional private final Property<Integer> maxConcurrentRequests;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /** Factory for the definitions. */
+    @Getter(AccessLevel.NONE)
+    private final ObjectFactory objects;
+
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties and definitions
+     */
+    @Inject
+    public BatchDownloadTask(final ObjectFactory objects) {
+        this.objects = objects;
+        token = objects.property(String.class);
+        format = objects.property(String.class).convention("json");
+        fileFormat = objects.property(String.class);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        resolved = objects.property(Boolean.class).convention(false);
+        bundle = objects.property(Boolean.class).convention(false);
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+        maxConcurrentRequests =
+                objects.property(Integer.class).convention(DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+
+        // the definitions may change on SwaggerHub at any time
+        getOutputs().upToDateWhen(task -> false);
+    }
+
+    /**
+     * Adds a definition to download. Format, file format, resolved and bundle flags default to the
+     * task settings.
+     *
+     * @param action configures the definition
+     */
+    public void definition(final Action<? super DownloadSpec> action) {
+        DownloadSpec spec = objects.newInstance(DownloadSpec.class);
+        spec.getFormat().convention(format);
+        spec.getFileFormat().convention(fileFormat);
+        spec.getResolved().convention(resolved);
+        spec.getBundle().convention(bundle);
+        action.execute(spec);
+        definitions.add(spec);
+    }
+
+    /**
+     * Downloads all configured API definitions and reports every failure at once.
+     *
+     * @throws GradleException if at least one definition could not be downloaded
+     */
+    @TaskAction
+    public void downloadDefinitions() throws GradleException {
+        if (definitions.isEmpty()) {
+            LOGGER.info("No definitions configured for {}", getPath());
+            setDidWork(false);
+            return;
+        }
+
+        SwaggerHubClient swaggerHubClient =
+                httpService
+                        .get()
+                        .createClient(
+                                host.get(),
+                                port.get(),
+                                protocol.get(),
+                                token.getOrNull(),
+                                onPremise.get(),
+                                onPremiseAPISuffix.get());
+        int concurrency = Math.max(1, Math.min(definitions.size(), maxConcurrentRequests.get()));
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (RequestExecutor executor = RequestExecutor.create(concurrency)) {
+            LOGGER.info(
+                    "Downloading {} definitions from {} with {} concurrent requests on {} threads",
+                    definitions.size(),
+                    host.get(),
+                    concurrency,
+                    executor.isVirtual() ? "virtual" : "platform");
+
+            for (DownloadSpec spec : definitions) {
+                futures.add(executor.submit(() -> download(swaggerHubClient, spec)));
+            }
+
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < definitions.size(); i++) {
+                DownloadSpec spec = definitions.get(i);
+                try {
+                    futures.get(i).get();
+                    getLogger()
+                            .lifecycle(
+                                    "Downloaded {} to {}",
+                                    spec.describe(),
+                                    spec.getOutputFile().get().getAsFile());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    LOGGER.error("Failed to download {}: {}", spec.describe(), cause.getMessage());
+                    errors.add(spec.describe() + ": " + cause.getMessage());
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                throw new GradleException(
+                        "Failed to download "
+                                + errors.size()
+                                + " of "
+                                + definitions.size()
+                                + " API definitions:\n - "
+                                + String.join("\n - ", errors));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while downloading API definitions", e);
+        }
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets the default response format.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets the default format of the output files.
+     *
+     * @param value the file format, {@code json} or {@code yaml}
+     */
+    public void setFileFormat(final String value) {
+        fileFormat.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the communication protocol.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets the default resolved flag.
+     *
+     * @param value the resolved flag
+     */
+    public void setResolved(final Boolean value) {
+        resolved.set(value);
+    }
+
+    /**
+     * Sets the default bundle flag.
+     *
+     * @param value the bundle flag
+     */
+    public void setBundle(final Boolean value) {
+        bundle.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
+    }
+
+    /**
+     * Sets the maximum number of definitions downloaded at the same time.
+     *
+     * @param value the concurrency limit
+     */
+    public void setMaxConcurrentRequests(final Integer value) {
+        maxConcurrentRequests.set(value);
+    }
+
+    /**
+     * Downloads a single definition and writes it to its output file.
+     *
+     * @param swaggerHubClient the client used for the download
+     * @param spec the definition to download
+     * @return always {@code null}, the method is submitted as a callable
+     */
+    private Void download(final SwaggerHubClient swaggerHubClient, final DownloadSpec spec) {
+        SwaggerHubRequest swaggerHubRequest =
+                SwaggerHubRequest.builder()
+                        .api(spec.getApi().get())
+                        .owner(spec.getOwner().get())
+                        .version(spec.getVersion().get())
+                        .format(spec.getFormat().get())
+                        .fileFormat(spec.getFileFormat().getOrNull())
+                        .resolved(spec.getResolved().get())
+                        .bundle(spec.getBundle().get())
+                        .onPremise(onPremise.get())
+                        .onPremiseAPISuffix(onPremiseAPISuffix.get())
+                        .build();
+
+        swaggerHubClient.downloadDefinition(
+                swaggerHubRequest, spec.getOutputFile().get().getAsFile().toPath());
+        return null;
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+import org.slf4j.Logger;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestExecutor;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+
+import lombok.Getter;
+
+/**
+ * Uploads many API definition files to SwaggerHub concurrently. API name and version of every file
+ * are derived from its file name or from the {@code info} block of the definition.
+ */
+@Getter
+@DisableCachingByDefault(
+        because = "Task communicates with SwaggerHub and has network side effects.")
+public class BatchUploadTask extends DefaultTask {
+    /** Names API and version after the file name. */
+    public static final String NAMING_FILE_NAME = "fileName";
+
+    /** Names API and version after {@code info.title} and {@code info.version}. */
+    public static final String NAMING_INFO = "info";
+
+    /** Logger instance for the task. */
+    private static final Logger LOGGER = Logging.getLogger(BatchUploadTask.class);
+
+    /** Default HTTPS port used by SwaggerHub. */
+    private static final int DEFAULT_PORT = 443;
+
+    /** Default number of definitions uploaded at the same time. */
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /** Default file name pattern, e.g. {@code petstore-1.0.0.yaml}. */
+    private static final String DEFAULT_FILE_NAME_PATTERN = "(?<api>.+?)-(?<version>\\d[^-]*)";
+
+    /** API definition files to upload. */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    private final ConfigurableFileCollection definitions;
+
+    /** API owner of all definitions. */
+    @Input private final Property<String> owner;
+
+    /** Authentication token. */
+    @Input private final Property<String> token;
+
+    /** Naming rule, {@value #NAMING_FILE_NAME} or {@value #NAMING_INFO}. */
+    @Input private final Property<String> naming;
+
+    /** Pattern with the groups {@code api} and {@code version} matched against file names. */
+    @Input private final Property<String> fileNamePattern;
+
+    /** Version for all definitions, overrides the derived version. */
+    @Input @Optional private final Property<String> version;
+
+    /**
+     * Uploaded format, derived from the file extension when not set. Files in the other format are
+     * converted while they are uploaded.
+     */
+    @Input @Optional private final Property<String> format;
+
+    /** OAS version, read from the definition when not set. */
+    @Input @Optional private final Property<String> oas;
+
+    /** Flag indicating whether the APIs are private. */
+    @Input private final Property<Boolean> isPrivate;
+
+    /** SwaggerHub host name. */
+    @Input @Optional private final Property<String> host;
+
+    /** SwaggerHub port. */
+    @Input @Optional private final Property<Integer> port;
+
+    /** Protocol used for requests. */
+    @Input @Optional private final Property<String> protocol;
+
+    /** Indicates that an on-premise instance is used. */
+    @Input @Optional private final Property<Boolean> onPremise;
+
+    /** On-premise API suffix. */
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Compresses the uploaded definitions with gzip. */
+    @Input @Optional private final Property<Boolean> compress;
+
+    /** Uploads the canonical form of the definitions: sorted keys, no whitespace or comments. */
+    @Input @Optional private final Property<Boolean> canonicalize;
+
+    /** Maximum number of definitions uploaded at the same time. */
+    @Input @Optional private final Property<Integer> maxConcurrentRequests;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties
+     */
+    @Inject
+    public BatchUploadTask(final ObjectFactory objects) {
+        definitions = objects.fileCollection();
+        owner = objects.property(String.class);
+        token = objects.property(String.class);
+        naming = objects.property(String.class).convention(NAMING_FILE_NAME);
+        fileNamePattern = objects.property(String.class).convention(DEFAULT_FILE_NAME_PATTERN);
+        version = objects.property(String.class);
+        format = objects.property(String.class);
+        oas = objects.property(String.class);
+        isPrivate = objects.property(Boolean.class).convention(false);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+        compress = objects.property(Boolean.class).convention(false);
+        canonicalize = objects.property(Boolean.class).convention(false);
+        maxConcurrentRequests =
+                objects.property(Integer.class).convention(DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+
+        // every run publishes the definitions
+        getOutputs().upToDateWhen(task -> false);
+    }
+
+    /**
+     * Uploads all definitions, prints a result table and reports every failure at once.
+     *
+     * @throws GradleException if a definition could not be named or uploaded
+     */
+    @TaskAction
+    public void uploadDefinitions() throws GradleException {
+        List<File> files = new ArrayList<>(definitions.getFiles());
+        if (files.isEmpty()) {
+            LOGGER.info("No definitions configured for {}", getPath());
+            setDidWork(false);
+            return;
+        }
+
+        List<SwaggerHubRequest> requests = new ArrayList<>();
+        for (File file : files) {
+            requests.add(request(file));
+        }
+
+        SwaggerHubClient swaggerHubClient =
+                httpService
+                        .get()
+                        .createClient(
+                                host.get(),
+                                port.get(),
+                                protocol.get(),
+                                token.get(),
+                                onPremise.get(),
+                                onPremiseAPISuffix.get());
+        int concurrency = Math.max(1, Math.min(files.size(), maxConcurrentRequests.get()));
+
+        List<Future<Long>> futures = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+        int failures = 0;
+        try (RequestExecutor executor = RequestExecutor.create(concurrency)) {
+            LOGGER.info(
+                    "Uploading {} definitions to {} with {} concurrent requests on {} threads",
+                    files.size(),
+                    host.get(),
+                    concurrency,
+                    executor.isVirtual() ? "virtual" : "platform");
+
+            for (SwaggerHubRequest request : requests) {
+                futures.add(executor.submit(() -> upload(swaggerHubClient, request)));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                SwaggerHubRequest request = requests.get(i);
+                String result;
+                String millis = "";
+                try {
+                    millis = String.valueOf(futures.get(i).get());
+                    result = "uploaded";
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    LOGGER.error(
+                            "Failed to upload {}: {}", files.get(i).getName(), cause.getMessage());
+                    result = "FAILED: " + cause.getMessage();
+                    failures++;
+                }
+                rows.add(
+                        new String[] {
+                            files.get(i).getName(),
+                            request.getApi(),
+                            request.getVersion(),
+                            millis,
+                            result
+                        });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while uploading API definitions", e);
+        }
+
+        getLogger().lifecycle(table(rows));
+        if (failures > 0) {
+            throw new GradleException(
+                    "Failed to upload " + failures + " of " + files.size() + " API definitions");
+        }
+    }
+
+    /**
+     * Sets the API owner of all definitions.
+     *
+     * @param value the owner
+     */
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets the naming rule.
+     *
+     * @param value {@value #NAMING_FILE_NAME} or {@value #NAMING_INFO}
+     */
+    public void setNaming(final String value) {
+        naming.set(value);
+    }
+
+    /**
+     * Sets the pattern matched against the file names without extension.
+     *
+     * @param value a regular expression with the named groups {@code api} and {@code version}
+     */
+    public void setFileNamePattern(final String value) {
+        fileNamePattern.set(value);
+    }
+
+    /**
+     * Sets a version for all definitions.
+     *
+     * @param value the version
+     */
+    public void setVersion(final String value) {
+        version.set(value);
+    }
+
+    /**
+     * Sets the format all definitions are uploaded in, files in the other format are converted.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets the OAS version of all definitions.
+     *
+     * @param value the OAS version
+     */
+    public void setOas(final String value) {
+        oas.set(value);
+    }
+
+    /**
+     * Sets whether the APIs are private.
+     *
+     * @param value the private flag
+     */
+    public void setIsPrivate(final Boolean value) {
+        isPrivate.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the protocol used for requests.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
+    }
+
+    /**
+     * Sets whether the uploaded definitions are gzip compressed.
+     *
+     * @param value the compress flag
+     */
+    public void setCompress(final Boolean value) {
+        compress.set(value);
+    }
+
+    /**
+     * Sets whether the canonical form of the definitions is uploaded.
+     *
+     * @param value the canonicalize flag
+     */
+    public void setCanonicalize(final Boolean value) {
+        canonicalize.set(value);
+    }
+
+    /**
+     * Sets the maximum number of definitions uploaded at the same time.
+     *
+     * @param value the concurrency limit
+     */
+    public void setMaxConcurrentRequests(final Integer value) {
+        maxConcurrentRequests.set(value);
+    }
+
+    /**
+     * Builds the upload request of a file, applying the naming rule.
+     *
+     * @param file the definition file
+     * @return the request
+     * @throws GradleException if API name or version cannot be derived
+     */
+    private SwaggerHubRequest request(final File file) throws GradleException {
+        return naming().request(
+                        file,
+                        SwaggerHubRequest.builder()
+                                .owner(owner.get())
+                                .isPrivate(isPrivate.get())
+                                .compress(compress.get())
+                                .canonicalize(canonicalize.get())
+                                .onPremise(onPremise.get())
+                                .onPremiseAPISuffix(onPremiseAPISuffix.get())
+                                .build());
+    }
+
+    /**
+     * Creates the naming rule from the task settings.
+     *
+     * @return the naming rule
+     */
+    private DefinitionNaming naming() {
+        return new DefinitionNaming(
+                naming.get(),
+                fileNamePattern.get(),
+                version.getOrNull(),
+                format.getOrNull(),
+                oas.getOrNull());
+    }
+
+    /**
+     * Uploads a single definition.
+     *
+     * @param swaggerHubClient the client used for the upload
+     * @param request the upload request
+     * @return the duration of the upload in milliseconds
+     */
+    private static long upload(
+            final SwaggerHubClient swaggerHubClient, final SwaggerHubRequest request) {
+        long start = System.nanoTime();
+        swaggerHubClient.saveDefinition(request);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Formats the results as a table with one row per file.
+     *
+     * @param rows the file, API, version, duration and result of every upload
+     * @return the table
+     */
+    static String table(final List<String[]> rows) {
+        String[] header = {"File", "API", "Version", "ms", "Result"};
+        int[] widths = new int[header.length];
+        for (int i = 0; i < header.length; i++) {
+            widths[i] = header[i].length();
+            for (String[] row : rows) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        }
+        StringBuilder table = new StringBuilder();
+        appendRow(table, header, widths);
+        String[] separator = new String[header.length];
+        for (int i = 0; i < header.length; i++) {
+            separator[i] = "-".repeat(widths[i]);
+        }
+        appendRow(table, separator, widths);
+        rows.forEach(row -> appendRow(table, row, widths));
+        return table.toString().stripTrailing();
+    }
+
+    /**
+     * Appends a row padded to the column widths.
+     *
+     * @param table the table to append to
+     * @param row the cells of the row
+     * @param widths the column widths
+     */
+    private static void appendRow(
+            final StringBuilder table, final String[] row, final int[] widths) {
+        for (int i = 0; i < row.length; i++) {
+            table.append(i == 0 ? "" : "  ");
+            table.append(
+                    i == row.length - 1 ? row[i] : String.format("%-" + widths[i] + "s", row[i]));
+        }
+        table.append('\n');
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.gradle.api.GradleException;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+
+/**
+ * Derives API name, version, format and OAS version of definition files, shared by the tasks that
+ * upload whole sets of files.
+ */
+final class DefinitionNaming {
+    /**
+     * Naming rule, {@link BatchUploadTask#NAMING_FILE_NAME} or {@link BatchUploadTask#NAMING_INFO}.
+     */
+    private final String naming;
+
+    /** Pattern with the groups {@code api} and {@code version} matched against file names. */
+    private final String fileNamePattern;
+
+    /** Version for all definitions, may be {@code null}. */
+    private final String version;
+
+    /** Format for all definitions, may be {@code null}. */
+    private final String format;
+
+    /** OAS version for all definitions, may be {@code null}. */
+    private final String oas;
+
+    /**
+     * Creates the naming rule.
+     *
+     * @param naming the naming rule
+     * @param fileNamePattern the file name pattern
+     * @param version version overriding the derived one, or {@code null}
+     * @param format format overriding the file extension, or {@code null}
+     * @param oas OAS version overriding the one of the definition, or {@code null}
+     */
+    DefinitionNaming(
+            final String naming,
+            final String fileNamePattern,
+            final String version,
+            final String format,
+            final String oas) {
+        this.naming = naming;
+        this.fileNamePattern = fileNamePattern;
+        this.version = version;
+        this.format = format;
+        this.oas = oas;
+    }
+
+    /**
+     * Builds the upload request of a file. API name, version, format and OAS version are derived
+     * from the file, owner and upload options are taken from the template. The file is read in the
+     * format of its extension and converted when a different upload format is configured.
+     *
+     * @param file the definition file
+     * @param template request providing owner, private, compress and on-premise settings
+     * @return the request
+     * @throws GradleException if API name or version cannot be derived
+     */
+    SwaggerHubRequest request(final File file, final SwaggerHubRequest template)
+            throws GradleException {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        String fileFormat = formatOf(file);
+
+        SpecInfo info = null;
+        if (BatchUploadTask.NAMING_INFO.equals(naming) || oas == null) {
+            try {
+                info = SpecInfo.read(file.toPath(), "yaml".equals(fileFormat));
+            } catch (IOException e) {
+                throw new GradleException("Failed to read API definition " + file, e);
+            }
+        }
+
+        String apiName;
+        String apiVersion;
+        if (BatchUploadTask.NAMING_INFO.equals(naming)) {
+            apiName =
+                    info.getTitle() == null ? null : info.getTitle().trim().replaceAll("\\s+", "-");
+            apiVersion = info.getVersion();
+        } else if (BatchUploadTask.NAMING_FILE_NAME.equals(naming)) {
+            Matcher matcher = fileNameMatcher(baseName);
+            apiName = matcher.matches() ? matcher.group("api") : null;
+            apiVersion = matcher.matches() ? matcher.group("version") : null;
+        } else {
+            throw new GradleException(
+                    "Unknown naming '"
+                            + naming
+                            + "', expected "
+                            + BatchUploadTask.NAMING_FILE_NAME
+                            + " or "
+                            + BatchUploadTask.NAMING_INFO);
+        }
+        apiVersion = version != null ? version : apiVersion;
+        if (apiName == null || apiVersion == null) {
+            throw new GradleException(
+                    "Cannot derive API name and version of "
+                            + file
+                            + " with naming '"
+                            + naming
+                            + "'");
+        }
+
+        String oasVersion = oas != null ? oas : info.getOas() != null ? info.getOas() : "2.0";
+        return SwaggerHubRequest.builder()
+                .api(apiName)
+                .version(apiVersion)
+                .format(format != null ? format : fileFormat)
+                .fileFormat(fileFormat)
+                .definitionFile(file.toPath())
+                .oas(oasVersion)
+                .owner(template.getOwner())
+                .isPrivate(template.getIsPrivate())
+                .compress(template.getCompress())
+                .canonicalize(template.getCanonicalize())
+                .onPremise(template.getOnPremise())
+                .onPremiseAPISuffix(template.getOnPremiseAPISuffix())
+                .build();
+    }
+
+    /**
+     * Tells whether a file looks like an API definition, judged by its extension.
+     *
+     * @param file the file
+     * @return {@code true} for {@code .json}, {@code .yaml} and {@code .yml} files
+     */
+    static boolean isDefinition(final File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") || name.endsWith(".yaml") || name.endsWith(".yml");
+    }
+
+    /**
+     * Derives the format of a definition from its file extension.
+     *
+     * @param file the definition file
+     * @return {@code yaml} for {@code .yaml} and {@code .yml} files, otherwise {@code json}
+     */
+    static String formatOf(final File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".yaml") || name.endsWith(".yml") ? "yaml" : "json";
+    }
+
+    /**
+     * Compiles the file name pattern and matches it against a file name.
+     *
+     * @param baseName the file name without extension
+     * @return the matcher
+     * @throws GradleException if the pattern is invalid
+     */
+    private Matcher fileNameMatcher(final String baseName) throws GradleException {
+        try {
+            return Pattern.compile(fileNamePattern).matcher(baseName);
+        } catch (PatternSyntaxException e) {
+            throw new GradleException("Invalid fileNamePattern: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import javax.inject.Inject;
+
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/** Describes a single API definition downloaded by {@link BatchDownloadTask}. */
+@Getter
+public class DownloadSpec {
+    /** Owner of the API. */
+    @Input private final Property<String> owner;
+
+    /** API identifier. */
+    @Input private final Property<String> api;
+
+    /** Version to download. */
+    @Input private final Property<String> version;
+
+    /** File for the downloaded definition. */
+    @OutputFile private final RegularFileProperty outputFile;
+
+    /** Desired response format, falls back to the task format when not set. */
+    @Input @Optional private final Property<String> format;
+
+    /** Format of the output file, falls back to the task file format when not set. */
+    @Input @Optional private final Property<String> fileFormat;
+
+    /** Whether a resolved definition is retrieved, falls back to the task setting. */
+    @Input @Optional private final Property<Boolean> resolved;
+
+    /** Whether external references are resolved locally, falls back to the task setting. */
+    @Input @Optional private final Property<Boolean> bundle;
+
+    /** Layout used to resolve relative output paths. */
+    @Getter(AccessLevel.NONE)
+    private final ProjectLayout layout;
+
+    /**
+     * Creates an empty definition.
+     *
+     * @param objects factory for the properties
+     * @param layout layout used to resolve relative output paths
+     */
+    @Inject
+    public DownloadSpec(final ObjectFactory objects, final ProjectLayout layout) {
+        this.layout = layout;
+        owner = objects.property(String.class);
+        api = objects.property(String.class);
+        version = objects.property(String.class);
+        outputFile = objects.fileProperty();
+        format = objects.property(String.class);
+        fileFormat = objects.property(String.class);
+        resolved = objects.property(Boolean.class);
+        bundle = objects.property(Boolean.class);
+    }
+
+    /**
+     * Sets the owner of the API.
+     *
+     * @param value the owner
+     */
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Sets the API identifier.
+     *
+     * @param value the API
+     */
+    public void setApi(final String value) {
+        api.set(value);
+    }
+
+    /**
+     * Sets the version to download.
+     *
+     * @param value the version
+     */
+    public void setVersion(final String value) {
+        version.set(value);
+    }
+
+    /**
+     * Sets the file for the downloaded definition, resolved relative to the project directory.
+     *
+     * @param value the path of the output file
+     */
+    public void setOutputFile(final String value) {
+        outputFile.set(layout.getProjectDirectory().file(value));
+    }
+
+    /**
+     * Sets the desired response format.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets the format of the output file, the response is converted to it while it is written.
+     *
+     * @param value the file format, {@code json} or {@code yaml}
+     */
+    public void setFileFormat(final String value) {
+        fileFormat.set(value);
+    }
+
+    /**
+     * Sets whether a resolved definition is retrieved.
+     *
+     * @param value the resolved flag
+     */
+    public void setResolved(final Boolean value) {
+        resolved.set(value);
+    }
+
+    /**
+     * Sets whether external references are resolved locally instead of on SwaggerHub.
+     *
+     * @param value the bundle flag
+     */
+    public void setBundle(final Boolean value) {
+        bundle.set(value);
+    }
+
+    /**
+     * Returns a short {@code owner/api/version} label used in logs and error reports.
+     *
+     * @return the label of this definition
+     */
+    public String describe() {
+        return owner.get() + "/" + api.get() + "/" + version.get();
+    }
+}
@@ -32,32 +32,41 @@
 package io.github.ludy87.swagger.swaggerhub.v2.tasks;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+
+import javax.inject.Inject;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
-import org.gradle.work.DisableCachingByDefault;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 
 import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
 import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+import io.github.ludy87.swagger.swaggerhub.v2.workers.DownloadWorkAction;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
-/** Downloads API definitions from SwaggerHub. */
+/**
+ * Downloads API definitions from SwaggerHub. In cacheable mode the current revision of the
+ * definition is part of the task inputs, so an unchanged definition is up-to-date or loaded from
+ * the build cache.
+ */
 @Getter
-@Setter
-@DisableCachingByDefault(
-        because = "Task communicates with SwaggerHub and has network side effects.")
+@CacheableTask
 public class DownloadTask extends DefaultTask {
     /** Logger instance for the task. */
     private static final Logger LOGGER = Logging.getLogger(DownloadTask.class);
@@ -65,101 +74,377 @@ public class DownloadTask extends DefaultTask {
     /** Default HTTPS port used by SwaggerHub. */
     private static final int DEFAULT_PORT = 443;
 
+    /** Name of the file that stores the validators of the last download. */
+    private static final String VALIDATORS_FILE = "validators.properties";
+
     /** Owner of the API. */
-    @Input private String owner;
+    @Input private final Property<String> owner;
 
     /** API identifier. */
-    @Input private String api;
+    @Input private final Property<String> api;
 
     /** Version to download. */
-    @Input private String version;
+    @Input private final Property<String> version;
 
-    /** Optional authentication token. */
-    @Input @Optional private String token;
+    /** Optional authentication token, not part of the cache key. */
+    @Internal private final Property<String> token;
 
-    /** File path for the downloaded definition. */
-    @Input private String outputFile;
+    /** File for the downloaded definition. */
+    @OutputFile private final RegularFileProperty outputFile;
 
     /** Desired response format. */
-    @Input @Optional private String format = "json";
+    @Input @Optional private final Property<String> format;
+
+    /** Format of the output file, the response is converted to it while streaming. */
+    @Input @Optional private final Property<String> fileFormat;
 
     /** SwaggerHub host name. */
-    @Input @Optional private String host = "api.swaggerhub.com";
+    @Input @Optional private final Property<String> host;
 
     /** SwaggerHub port. */
-    @Input @Optional private Integer port = DEFAULT_PORT;
+    @Input @Optional private final Property<Integer> port;
 
     /** Communication protocol. */
-    @Input @Optional private String protocol = "https";
+    @Input @Optional private final Property<String> protocol;
 
     /** Indicates whether a resolved definition should be retrieved. */
-    @Input @Optional private Boolean resolved = false;
+    @Input @Optional private final Property<Boolean> resolved;
+
+    /** Resolves external references locally instead of downloading a resolved definition. */
+    @Input @Optional private final Property<Boolean> bundle;
 
     /** Signals if an on-premise instance is used. */
-    @Input @Optional private Boolean onPremise = false;
+    @Input @Optional private final Property<Boolean> onPremise;
 
     /** API suffix to use for on-premise SwaggerHub installations (e.g., "v1"). */
-    @Input @Optional private String onPremiseAPISuffix = "v1";
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Enables the build cache for this task, keyed by the remote revision. */
+    @Input @Optional private final Property<Boolean> cacheable;
+
+    /** Revision of the definition on SwaggerHub, only looked up in cacheable mode. */
+    @Input @Optional private final Provider<String> remoteRevision;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /** Executor running the network calls outside of the task thread. */
+    @Getter(AccessLevel.NONE)
+    private final WorkerExecutor workerExecutor;
+
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties
+     * @param providers factory for the remote revision provider
+     * @param workerExecutor executor running the network calls outside of the task thread
+     */
+    @Inject
+    public DownloadTask(
+            final ObjectFactory objects,
+            final ProviderFactory providers,
+            final WorkerExecutor workerExecutor) {
+        this.workerExecutor = workerExecutor;
+        owner = objects.property(String.class);
+        api = objects.property(String.class);
+        version = objects.property(String.class);
+        token = objects.property(String.class);
+        outputFile = objects.fileProperty();
+        format = objects.property(String.class).convention("json");
+        fileFormat = objects.property(String.class);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        resolved = objects.property(Boolean.class).convention(false);
+        bundle = objects.property(Boolean.class).convention(false);
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+        cacheable = objects.property(Boolean.class).convention(false);
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+
+        // the revision of a bundled definition also depends on the documents it references, which
+        // the lookup does not see, so cacheable mode is not applied to it
+        Provider<Boolean> revisionLookup =
+                cacheable.zip(bundle, (enabled, bundled) -> enabled && !bundled);
+        remoteRevision =
+                providers.of(
+                        RemoteRevisionSource.class,
+                        spec -> {
+                            RemoteRevisionSource.Params params = spec.getParameters();
+                            params.getEnabled().set(revisionLookup);
+                            params.getHost().set(host);
+                            params.getPort().set(port);
+                            params.getProtocol().set(protocol);
+                            params.getToken().set(token);
+                            params.getOnPremise().set(onPremise);
+                            params.getOnPremiseAPISuffix().set(onPremiseAPISuffix);
+                            params.getOwner().set(owner);
+                            params.getApi().set(api);
+                            params.getVersion().set(version);
+                            params.getFormat().set(format);
+                            params.getResolved().set(resolved);
+                            params.getHttpService().set(service);
+                        });
 
-    /** SwaggerHub client used for the download. */
-    @Internal private SwaggerHubClient swaggerHubClient;
+        // without a known revision the definition may change on SwaggerHub at any time, the
+        // conditional request decides
+        Provider<Boolean> cacheableMode = revisionLookup;
+        Provider<String> revision = remoteRevision;
+        getOutputs().upToDateWhen(task -> cacheableMode.get() && revision.isPresent());
+        getOutputs()
+                .cacheIf(
+                        "cacheable mode is enabled for an unbundled definition and SwaggerHub"
+                                + " reported a revision",
+                        task -> cacheableMode.get() && revision.isPresent());
+    }
 
     /**
-     * Downloads the API definition from SwaggerHub.
+     * Downloads the API definition. The first download is submitted to the worker executor, so it
+     * runs in parallel with other work of the build. Once validators of a previous download exist,
+     * the conditional request decides whether there is any work at all, so it runs in the task
+     * action: when SwaggerHub answers that the definition is unchanged, the output file is left
+     * untouched and the task is reported {@code UP-TO-DATE}.
      *
      * @throws GradleException if an error occurs during the download process
      */
     @TaskAction
     public void downloadDefinition() throws GradleException {
-        swaggerHubClient =
-                SwaggerHubClient.createOnPremise(
-                        host, port, protocol, token, onPremise, onPremiseAPISuffix);
-
+        File file = outputFile.get().getAsFile();
         LOGGER.info(
                 "Downloading from {}: api={}, owner={}, version={}, format={}, "
                         + "resolved={}, outputFile={}, onPremise={}, onPremiseAPISuffix={}",
-                host,
-                api,
-                owner,
-                version,
-                format,
-                resolved,
-                outputFile,
-                onPremise,
-                onPremiseAPISuffix);
-
-        SwaggerHubRequest swaggerHubRequest =
-                SwaggerHubRequest.builder()
-                        .api(api)
-                        .owner(owner)
-                        .version(version)
-                        .format(format)
-                        .resolved(resolved)
-                        .onPremise(onPremise)
-                        .onPremiseAPISuffix(onPremiseAPISuffix)
-                        .build();
-
-        try {
-            String swaggerJson = swaggerHubClient.getDefinition(swaggerHubRequest);
-            File file = new File(outputFile);
-
-            setUpOutputDir(file);
-            Files.write(Paths.get(outputFile), swaggerJson.getBytes(StandardCharsets.UTF_8));
-        } catch (IOException | GradleException e) {
-            throw new GradleException(e.getMessage(), e);
+                host.get(),
+                api.get(),
+                owner.get(),
+                version.get(),
+                format.get(),
+                resolved.get(),
+                file,
+                onPremise.get(),
+                onPremiseAPISuffix.get());
+
+        File validatorsFile = new File(getTemporaryDir(), VALIDATORS_FILE);
+        String validatorsKey = validatorsKey();
+
+        // bundled downloads never send validators, see SwaggerHubClient
+        if (!bundle.get()
+                && DownloadWorkAction.hasValidators(validatorsFile, validatorsKey, file)) {
+            SwaggerHubHttpService service = httpService.get();
+            SwaggerHubClient swaggerHubClient =
+                    service.createClient(
+                            host.get(),
+                            port.get(),
+                            protocol.get(),
+                            token.getOrNull(),
+                            onPremise.get(),
+                            onPremiseAPISuffix.get());
+            SwaggerHubRequest swaggerHubRequest =
+                    SwaggerHubRequest.builder()
+                            .api(api.get())
+                            .owner(owner.get())
+                            .version(version.get())
+                            .onPremise(onPremise.get())
+                            .onPremiseAPISuffix(onPremiseAPISuffix.get())
+                            .format(format.get())
+                            .fileFormat(fileFormat.getOrNull())
+                            .resolved(resolved.get())
+                            .build();
+            setDidWork(
+                    DownloadWorkAction.download(
+                            swaggerHubClient,
+                            swaggerHubRequest,
+                            file,
+                            validatorsFile,
+                            validatorsKey));
+            return;
         }
+
+        workerExecutor
+                .noIsolation()
+                .submit(
+                        DownloadWorkAction.class,
+                        params -> {
+                            params.getHost().set(host);
+                            params.getPort().set(port);
+                            params.getProtocol().set(protocol);
+                            params.getToken().set(token);
+                            params.getOnPremise().set(onPremise);
+                            params.getOnPremiseAPISuffix().set(onPremiseAPISuffix);
+                            params.getOwner().set(owner);
+                            params.getApi().set(api);
+                            params.getVersion().set(version);
+                            params.getHttpService().set(httpService);
+                            params.getOutputFile().set(outputFile);
+                            params.getFormat().set(format);
+                            params.getFileFormat().set(fileFormat);
+                            params.getResolved().set(resolved);
+                            params.getBundle().set(bundle);
+                            params.getValidatorsFile().set(validatorsFile);
+                            params.getValidatorsKey().set(validatorsKey);
+                        });
     }
 
     /**
-     * Sets up the output directory for the downloaded file.
+     * Sets the owner of the API.
      *
-     * @param file the file for which the parent directory should be created
-     * @throws IOException if an error occurs while creating the directories
+     * @param value the owner
      */
-    private void setUpOutputDir(final File file) throws IOException {
-        File parentFile = file.getParentFile();
-        if (parentFile != null) {
-            Files.createDirectories(file.getParentFile().toPath());
-        }
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Sets the API identifier.
+     *
+     * @param value the API
+     */
+    public void setApi(final String value) {
+        api.set(value);
+    }
+
+    /**
+     * Sets the version to download.
+     *
+     * @param value the version
+     */
+    public void setVersion(final String value) {
+        version.set(value);
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets whether the download is cacheable, keyed by the remote revision.
+     *
+     * @param value the cacheable flag
+     */
+    public void setCacheable(final Boolean value) {
+        cacheable.set(value);
+    }
+
+    /**
+     * Sets the file for the downloaded definition, resolved relative to the project directory.
+     *
+     * @param value the path of the output file
+     */
+    public void setOutputFile(final String value) {
+        outputFile.set(getProject().file(value));
+    }
+
+    /**
+     * Sets the desired response format.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets the format of the output file. The definition is still downloaded in {@link #format} and
+     * converted while it is written.
+     *
+     * @param value the file format, {@code json} or {@code yaml}
+     */
+    public void setFileFormat(final String value) {
+        fileFormat.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the communication protocol.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets whether a resolved definition should be retrieved.
+     *
+     * @param value the resolved flag
+     */
+    public void setResolved(final Boolean value) {
+        resolved.set(value);
+    }
+
+    /**
+     * Sets whether external references are resolved locally instead of on SwaggerHub.
+     *
+     * @param value the bundle flag
+     */
+    public void setBundle(final Boolean value) {
+        bundle.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
+    }
+
+    /**
+     * Builds the key identifying the downloaded definition in the validators file, so that
+     * validators are never reused after the task configuration changed.
+     *
+     * @return the validators key
+     */
+    private String validatorsKey() {
+        return String.join(
+                "|",
+                protocol.get(),
+                host.get(),
+                String.valueOf(port.get()),
+                String.valueOf(onPremise.get()),
+                onPremiseAPISuffix.get(),
+                owner.get(),
+                api.get(),
+                version.get(),
+                format.get(),
+                fileFormat.getOrElse(""),
+                String.valueOf(resolved.get()),
+                String.valueOf(bundle.get()));
     }
 }
@@ -0,0 +1,638 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+import org.slf4j.Logger;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.ApiListing;
+import io.github.ludy87.swagger.swaggerhub.v2.client.DownloadResult;
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestExecutor;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Mirrors all API versions of an owner into a local directory tree, {@code
+ * <outputDir>/<owner>/<api>/<version>.<format>}. APIs and versions are taken from the SwaggerHub
+ * registry listing, and only versions missing locally or modified since they were mirrored are
+ * downloaded.
+ *
+ * <p>Every mirrored version is appended to an index file right after its download, so an
+ * interrupted run resumes where it stopped. The index is compacted at the end of each run.
+ */
+@Getter
+@DisableCachingByDefault(
+        because = "Task communicates with SwaggerHub and has network side effects.")
+public class MirrorTask extends DefaultTask {
+    /** Name of the index file in the directory of the owner. */
+    public static final String INDEX_FILE_NAME = "index.properties";
+
+    /** Logger instance for the task. */
+    private static final Logger LOGGER = Logging.getLogger(MirrorTask.class);
+
+    /** Default HTTPS port used by SwaggerHub. */
+    private static final int DEFAULT_PORT = 443;
+
+    /** Default number of requests sent at the same time. */
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /** Default number of entries requested per listing page. */
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Index key holding the settings the versions were mirrored with. */
+    private static final String SETTINGS_KEY = "settings";
+
+    /** Owner of the mirrored APIs. */
+    @Input private final Property<String> owner;
+
+    /** APIs to mirror, all APIs of the owner when empty. */
+    @Input private final ListProperty<String> apis;
+
+    /** Root directory of the mirror. */
+    @OutputDirectory private final DirectoryProperty outputDir;
+
+    /** Optional authentication token. */
+    @Input @Optional private final Property<String> token;
+
+    /** Format of the mirrored definitions. */
+    @Input @Optional private final Property<String> format;
+
+    /** Whether resolved definitions are mirrored. */
+    @Input @Optional private final Property<Boolean> resolved;
+
+    /** Number of entries requested per listing page. */
+    @Input @Optional private final Property<Integer> pageSize;
+
+    /** SwaggerHub host name. */
+    @Input @Optional private final Property<String> host;
+
+    /** SwaggerHub port. */
+    @Input @Optional private final Property<Integer> port;
+
+    /** Communication protocol. */
+    @Input @Optional private final Property<String> protocol;
+
+    /** Signals if an on-premise instance is used. */
+    @Input @Optional private final Property<Boolean> onPremise;
+
+    /** API suffix to use for on-premise SwaggerHub installations (e.g., "v1"). */
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Maximum number of requests sent at the same time. */
+    @Input @Optional private final Property<Integer> maxConcurrentRequests;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /** Layout used to resolve relative paths. */
+    @Getter(AccessLevel.NONE)
+    private final ProjectLayout layout;
+
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties
+     * @param layout layout used to resolve relative paths
+     */
+    @Inject
+    public MirrorTask(final ObjectFactory objects, final ProjectLayout layout) {
+        this.layout = layout;
+        owner = objects.property(String.class);
+        apis = objects.listProperty(String.class).convention(List.of());
+        outputDir = objects.directoryProperty();
+        token = objects.property(String.class);
+        format = objects.property(String.class).convention("json");
+        resolved = objects.property(Boolean.class).convention(false);
+        pageSize = objects.property(Integer.class).convention(DEFAULT_PAGE_SIZE);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+        maxConcurrentRequests =
+                objects.property(Integer.class).convention(DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+
+        // the registry may change on SwaggerHub at any time
+        getOutputs().upToDateWhen(task -> false);
+    }
+
+    /**
+     * Lists the versions of the APIs and downloads the missing and modified ones.
+     *
+     * @throws GradleException if the APIs cannot be listed or a version could not be mirrored
+     */
+    @TaskAction
+    public void mirror() throws GradleException {
+        if (httpService.get().isOffline()) {
+            getLogger().lifecycle("Gradle runs in offline mode, {} keeps the mirror", getPath());
+            setDidWork(false);
+            return;
+        }
+
+        SwaggerHubClient swaggerHubClient =
+                // no definition cache: unchanged versions are detected by SwaggerHub's 304 answer
+                SwaggerHubClient.builder()
+                        .host(host.get())
+                        .port(port.get())
+                        .protocol(protocol.get())
+                        .token(token.getOrNull())
+                        .onPremise(onPremise.get())
+                        .onPremiseAPISuffix(onPremiseAPISuffix.get())
+                        .client(httpService.get().getClient())
+                        .build();
+        Path ownerDir = outputDir.get().getAsFile().toPath().resolve(safeSegment(owner.get()));
+        String extension = "yaml".equals(format.get()) ? "yaml" : "json";
+
+        List<String> names;
+        if (apis.get().isEmpty()) {
+            LinkedHashSet<String> listed = new LinkedHashSet<>();
+            swaggerHubClient
+                    .listApis(owner.get(), pageSize.get())
+                    .forEach(api -> listed.add(api.getApi()));
+            names = new ArrayList<>(listed);
+        } else {
+            names = apis.get();
+        }
+
+        MirrorIndex index = new MirrorIndex(ownerDir.resolve(INDEX_FILE_NAME), settings());
+        List<String> errors = new ArrayList<>();
+        int versions = 0;
+        int downloaded = 0;
+        int unchanged = 0;
+        int concurrency = Math.max(1, maxConcurrentRequests.get());
+        try (RequestExecutor executor = RequestExecutor.create(concurrency)) {
+            List<Future<List<ApiListing.Api>>> listings = new ArrayList<>();
+            for (String name : names) {
+                listings.add(
+                        executor.submit(
+                                () ->
+                                        swaggerHubClient.listVersions(
+                                                owner.get(), name, pageSize.get())));
+            }
+
+            List<String> keys = new ArrayList<>();
+            List<Future<Boolean>> downloads = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                List<ApiListing.Api> listed;
+                try {
+                    listed = listings.get(i).get();
+                } catch (ExecutionException e) {
+                    errors.add(name + ": " + cause(e).getMessage());
+                    continue;
+                }
+                for (ApiListing.Api entry : listed) {
+                    String key = name + "/" + entry.getVersion();
+                    versions++;
+                    Path target;
+                    try {
+                        target =
+                                ownerDir.resolve(safeSegment(name))
+                                        .resolve(safeSegment(entry.getVersion()) + "." + extension);
+                    } catch (GradleException e) {
+                        errors.add(key + ": " + e.getMessage());
+                        continue;
+                    }
+                    boolean present = Files.isRegularFile(target);
+                    if (present
+                            && entry.getModified() != null
+                            && entry.getModified().equals(index.get(key, "modified"))) {
+                        unchanged++;
+                        continue;
+                    }
+                    SwaggerHubRequest request =
+                            SwaggerHubRequest.builder()
+                                    .api(name)
+                                    .owner(owner.get())
+                                    .version(entry.getVersion())
+                                    .format(format.get())
+                                    .resolved(resolved.get())
+                                    .onPremise(onPremise.get())
+                                    .onPremiseAPISuffix(onPremiseAPISuffix.get())
+                                    .eTag(present ? index.get(key, "etag") : null)
+                                    .build();
+                    keys.add(key);
+                    downloads.add(
+                            executor.submit(
+                                    () ->
+                                            download(
+                                                    swaggerHubClient,
+                                                    request,
+                                                    target,
+                                                    entry,
+                                                    index)));
+                }
+            }
+
+            for (int i = 0; i < downloads.size(); i++) {
+                try {
+                    if (downloads.get(i).get()) {
+                        unchanged++;
+                    } else {
+                        downloaded++;
+                    }
+                } catch (ExecutionException e) {
+                    LOGGER.error("Failed to mirror {}: {}", keys.get(i), cause(e).getMessage());
+                    errors.add(keys.get(i) + ": " + cause(e).getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while mirroring API definitions", e);
+        } finally {
+            index.compact();
+        }
+
+        getLogger()
+                .lifecycle(
+                        "Mirrored {} versions of {} APIs to {}: {} downloaded, {} unchanged",
+                        versions,
+                        names.size(),
+                        ownerDir,
+                        downloaded,
+                        unchanged);
+        if (!errors.isEmpty()) {
+            throw new GradleException(
+                    "Failed to mirror "
+                            + errors.size()
+                            + " API versions:\n - "
+                            + String.join("\n - ", errors));
+        }
+    }
+
+    /**
+     * Sets the owner of the mirrored APIs.
+     *
+     * @param value the owner
+     */
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Restricts the mirror to some APIs of the owner.
+     *
+     * @param value the API names
+     */
+    public void setApis(final List<String> value) {
+        apis.set(value);
+    }
+
+    /**
+     * Sets the root directory of the mirror, resolved relative to the project directory.
+     *
+     * @param value the path of the directory
+     */
+    public void setOutputDir(final String value) {
+        outputDir.set(layout.getProjectDirectory().dir(value));
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets the format of the mirrored definitions.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets whether resolved definitions are mirrored.
+     *
+     * @param value the resolved flag
+     */
+    public void setResolved(final Boolean value) {
+        resolved.set(value);
+    }
+
+    /**
+     * Sets the number of entries requested per listing page.
+     *
+     * @param value the page size
+     */
+    public void setPageSize(final Integer value) {
+        pageSize.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the communication protocol.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
+    }
+
+    /**
+     * Sets the maximum number of requests sent at the same time.
+     *
+     * @param value the concurrency limit
+     */
+    public void setMaxConcurrentRequests(final Integer value) {
+        maxConcurrentRequests.set(value);
+    }
+
+    /**
+     * Downloads a version and records it in the index.
+     *
+     * @param swaggerHubClient the client used for the download
+     * @param request the download request, with the ETag of the mirrored file if present
+     * @param target the file of the version
+     * @param entry the listing entry of the version
+     * @param index the index of the mirror
+     * @return {@code true} if SwaggerHub reported the mirrored file as current
+     * @throws IOException if the index cannot be written
+     */
+    private static boolean download(
+            final SwaggerHubClient swaggerHubClient,
+            final SwaggerHubRequest request,
+            final Path target,
+            final ApiListing.Api entry,
+            final MirrorIndex index)
+            throws IOException {
+        DownloadResult result = swaggerHubClient.downloadDefinition(request, target);
+        String key = request.getApi() + "/" + request.getVersion();
+        Map<String, String> values = new TreeMap<>();
+        if (entry.getModified() != null) {
+            values.put("modified", entry.getModified());
+        }
+        String eTag = result.getETag() != null ? result.getETag() : request.getETag();
+        if (eTag != null) {
+            values.put("etag", eTag);
+        }
+        index.record(key, values);
+        return result.isNotModified();
+    }
+
+    /**
+     * Describes the settings that determine the mirrored content. An index written with other
+     * settings is ignored.
+     *
+     * @return the settings fingerprint
+     */
+    private String settings() {
+        return String.join(
+                "|",
+                protocol.get(),
+                host.get(),
+                String.valueOf(port.get()),
+                format.get(),
+                String.valueOf(resolved.get()));
+    }
+
+    /**
+     * Checks that a name from the registry can be used as a single path segment.
+     *
+     * @param value the owner, API or version
+     * @return the value
+     * @throws GradleException if the value would leave its directory
+     */
+    private static String safeSegment(final String value) throws GradleException {
+        if (value == null
+                || value.isEmpty()
+                || ".".equals(value)
+                || "..".equals(value)
+                || value.contains("/")
+                || value.contains("\\")) {
+            throw new GradleException("Cannot use '" + value + "' as a directory or file name");
+        }
+        return value;
+    }
+
+    /**
+     * Unwraps the failure of a request.
+     *
+     * @param e the failure reported by the executor
+     * @return the cause of the failure
+     */
+    private static Throwable cause(final ExecutionException e) {
+        return e.getCause() == null ? e : e.getCause();
+    }
+
+    /**
+     * Index of the mirrored versions. Entries are appended while the versions are downloaded, so
+     * the index survives an interrupted run; the last value of a key wins when it is read again.
+     */
+    private static final class MirrorIndex {
+        /** Index file. */
+        private final Path file;
+
+        /** Settings the index belongs to. */
+        private final String settings;
+
+        /** Current values by key. */
+        private final Map<String, String> values = new TreeMap<>();
+
+        /**
+         * Reads the index, discarding it if it was written with other settings.
+         *
+         * @param file the index file
+         * @param settings the current settings
+         * @throws GradleException if the index cannot be read
+         */
+        MirrorIndex(final Path file, final String settings) throws GradleException {
+            this.file = file;
+            this.settings = settings;
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new GradleException("Failed to read mirror index " + file, e);
+            }
+            if (!settings.equals(properties.getProperty(SETTINGS_KEY))) {
+                LOGGER.info("Mirror settings changed, discarding {}", file);
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new GradleException("Failed to discard mirror index " + file, e);
+                }
+                return;
+            }
+            properties
+                    .stringPropertyNames()
+                    .forEach(key -> values.put(key, properties.getProperty(key)));
+        }
+
+        /**
+         * Returns a recorded value of a version.
+         *
+         * @param key the {@code api/version} key
+         * @param name the value name
+         * @return the value, or {@code null}
+         */
+        synchronized String get(final String key, final String name) {
+            return values.get(key + "." + name);
+        }
+
+        /**
+         * Records a mirrored version and appends it to the index file.
+         *
+         * @param key the {@code api/version} key
+         * @param recorded the values of the version
+         * @throws IOException if the index cannot be written
+         */
+        synchronized void record(final String key, final Map<String, String> recorded)
+                throws IOException {
+            Map<String, String> lines = new TreeMap<>();
+            if (!Files.isRegularFile(file)) {
+                lines.put(SETTINGS_KEY, settings);
+            }
+            recorded.forEach((name, value) -> lines.put(key + "." + name, value));
+            values.putAll(lines);
+            Files.createDirectories(file.getParent());
+            try (Writer writer =
+                    Files.newBufferedWriter(
+                            file,
+                            StandardCharsets.ISO_8859_1,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND)) {
+                writer.write(format(lines));
+            }
+        }
+
+        /**
+         * Rewrites the index with one line per value.
+         *
+         * @throws GradleException if the index cannot be written
+         */
+        synchronized void compact() throws GradleException {
+            values.put(SETTINGS_KEY, settings);
+            try {
+                Files.createDirectories(file.getParent());
+                Path temp = Files.createTempFile(file.getParent(), INDEX_FILE_NAME, ".part");
+                Files.writeString(temp, format(values), StandardCharsets.ISO_8859_1);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new GradleException("Failed to write mirror index " + file, e);
+            }
+        }
+
+        /**
+         * Formats values as properties lines without the timestamp comment of {@link
+         * Properties#store}.
+         *
+         * @param lines the values
+         * @return the properties lines
+         * @throws IOException never, the values are written to memory
+         */
+        private static String format(final Map<String, String> lines) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (Map.Entry<String, String> line : lines.entrySet()) {
+                Properties properties = new Properties();
+                properties.setProperty(line.getKey(), line.getValue());
+                StringWriter writer = new StringWriter();
+                properties.store(writer, null);
+                writer.toString()
+                        .lines()
+                        .filter(l -> !l.startsWith("#"))
+                        .forEach(l -> text.append(l).append('\n'));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.slf4j.Logger;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+
+/**
+ * Looks up the current revision of an API definition on SwaggerHub. The revision is used as a task
+ * input of {@link DownloadTask} in cacheable mode, so the build cache can serve the definition
+ * without downloading it.
+ */
+public abstract class RemoteRevisionSource
+        implements ValueSource<String, RemoteRevisionSource.Params> {
+    /** Logger instance for the revision lookup. */
+    private static final Logger LOGGER = Logging.getLogger(RemoteRevisionSource.class);
+
+    /** Parameters of the revision lookup. */
+    public interface Params extends ValueSourceParameters {
+        /**
+         * Returns whether the lookup is enabled at all.
+         *
+         * @return the enabled flag
+         */
+        Property<Boolean> getEnabled();
+
+        /**
+         * Returns the SwaggerHub host name.
+         *
+         * @return the host
+         */
+        Property<String> getHost();
+
+        /**
+         * Returns the SwaggerHub port.
+         *
+         * @return the port
+         */
+        Property<Integer> getPort();
+
+        /**
+         * Returns the protocol used for requests.
+         *
+         * @return the protocol, {@code http} or {@code https}
+         */
+        Property<String> getProtocol();
+
+        /**
+         * Returns the authentication token.
+         *
+         * @return the token, may be absent
+         */
+        Property<String> getToken();
+
+        /**
+         * Returns whether an on-premise instance is used.
+         *
+         * @return the on-premise flag
+         */
+        Property<Boolean> getOnPremise();
+
+        /**
+         * Returns the on-premise API suffix.
+         *
+         * @return the API suffix
+         */
+        Property<String> getOnPremiseAPISuffix();
+
+        /**
+         * Returns the owner of the API.
+         *
+         * @return the owner
+         */
+        Property<String> getOwner();
+
+        /**
+         * Returns the API identifier.
+         *
+         * @return the API
+         */
+        Property<String> getApi();
+
+        /**
+         * Returns the API version.
+         *
+         * @return the version
+         */
+        Property<String> getVersion();
+
+        /**
+         * Returns the requested format.
+         *
+         * @return the format, {@code json} or {@code yaml}
+         */
+        Property<String> getFormat();
+
+        /**
+         * Returns whether the resolved definition is requested.
+         *
+         * @return the resolved flag
+         */
+        Property<Boolean> getResolved();
+
+        /**
+         * Returns the shared HTTP service.
+         *
+         * @return the HTTP service
+         */
+        Property<SwaggerHubHttpService> getHttpService();
+    }
+
+    /**
+     * Fetches the revision with a metadata-only request.
+     *
+     * @return the revision, or {@code null} if the lookup is disabled, Gradle runs offline, the
+     *     lookup failed or SwaggerHub reported no revision
+     */
+    @Override
+    public String obtain() {
+        Params params = getParameters();
+        if (!params.getEnabled().get() || params.getHttpService().get().isOffline()) {
+            return null;
+        }
+
+        SwaggerHubClient swaggerHubClient =
+                params.getHttpService()
+                        .get()
+                        .createClient(
+                                params.getHost().get(),
+                                params.getPort().get(),
+                                params.getProtocol().get(),
+                                params.getToken().getOrNull(),
+                                params.getOnPremise().get(),
+                                params.getOnPremiseAPISuffix().get());
+        SwaggerHubRequest swaggerHubRequest =
+                SwaggerHubRequest.builder()
+                        .api(params.getApi().get())
+                        .owner(params.getOwner().get())
+                        .version(params.getVersion().get())
+                        .format(params.getFormat().get())
+                        .resolved(params.getResolved().get())
+                        .onPremise(params.getOnPremise().get())
+                        .onPremiseAPISuffix(params.getOnPremiseAPISuffix().get())
+                        .build();
+
+        try {
+            String revision = swaggerHubClient.fetchRevision(swaggerHubRequest);
+            if (revision == null) {
+                LOGGER.info("SwaggerHub reported no revision for {}", describe(params));
+            }
+            return revision;
+        } catch (GradleException e) {
+            // without a revision the task is simply not cacheable, the download reports errors
+            LOGGER.info("Revision lookup for {} failed: {}", describe(params), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns a short {@code owner/api/version} label used in logs.
+     *
+     * @param params the lookup parameters
+     * @return the label
+     */
+    private static String describe(final Params params) {
+        return params.getOwner().get()
+                + "/"
+                + params.getApi().get()
+                + "/"
+                + params.getVersion().get();
+    }
+}
@@ -14,27 +14,30 @@
  */
 package io.github.ludy87.swagger.swaggerhub.v2.tasks;
 
+import javax.inject.Inject;
+
 import org.gradle.api.DefaultTask;
 import org.gradle.api.GradleException;
 import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.work.DisableCachingByDefault;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 
-import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
-import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+import io.github.ludy87.swagger.swaggerhub.v2.workers.SetDefaultVersionWorkAction;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
-/**
- * Sets the default version of an API in SwaggerHub.
- */
+/** Sets the default version of an API in SwaggerHub. */
 @Getter
-@Setter
 @DisableCachingByDefault(
         because = "Task communicates with SwaggerHub and has network side effects.")
 public class SetDefaultVersion extends DefaultTask {
@@ -45,69 +48,179 @@ public class SetDefaultVersion extends DefaultTask {
     private static final int DEFAULT_PORT = 443;
 
     /** API owner. */
-    @Input private String owner;
+    @Input private final Property<String> owner;
 
     /** API identifier. */
-    @Input private String api;
+    @Input private final Property<String> api;
 
     /** Version to promote. */
-    @Input private String version;
+    @Input private final Property<String> version;
 
     /** Authentication token. */
-    @Input private String token;
+    @Input private final Property<String> token;
 
     /** SwaggerHub host name. */
-    @Input @Optional private String host = "api.swaggerhub.com";
+    @Input @Optional private final Property<String> host;
 
     /** SwaggerHub port. */
-    @Input @Optional private Integer port = DEFAULT_PORT;
+    @Input @Optional private final Property<Integer> port;
 
     /** Protocol used for requests. */
-    @Input @Optional private String protocol = "https";
+    @Input @Optional private final Property<String> protocol;
 
     /** Indicates an on-premise installation. */
-    @Input @Optional private Boolean onPremise = false;
+    @Input @Optional private final Property<Boolean> onPremise;
 
     /** On-premise API suffix. */
-    @Input @Optional private String onPremiseAPISuffix = "v1";
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /** Executor running the network calls outside of the task thread. */
+    @Getter(AccessLevel.NONE)
+    private final WorkerExecutor workerExecutor;
 
-    /** SwaggerHub client used to communicate with the service. */
-    @Internal private SwaggerHubClient swaggerHubClient;
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties
+     * @param workerExecutor executor running the network calls outside of the task thread
+     */
+    @Inject
+    public SetDefaultVersion(final ObjectFactory objects, final WorkerExecutor workerExecutor) {
+        this.workerExecutor = workerExecutor;
+        owner = objects.property(String.class);
+        api = objects.property(String.class);
+        version = objects.property(String.class);
+        token = objects.property(String.class);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+    }
 
     /**
-     * Sets the configured API version as the default version.
+     * Submits the update of the default version to the worker executor, so it runs in parallel with
+     * other work of the build.
      *
      * @throws GradleException if there is an error during the update
      */
     @TaskAction
     public void uploadDefinition() throws GradleException {
-        swaggerHubClient =
-                SwaggerHubClient.createOnPremise(
-                        host, port, protocol, token, onPremise, onPremiseAPISuffix);
-
         LOGGER.info(
                 "Setting default version on {}: api={}, owner={}, version={}, "
                         + "onPremise={}, onPremiseAPISuffix={}",
-                host,
-                api,
-                owner,
-                version,
-                onPremise,
-                onPremiseAPISuffix);
-
-        try {
-            SwaggerHubRequest swaggerHubRequest =
-                    SwaggerHubRequest.builder()
-                            .api(api)
-                            .owner(owner)
-                            .version(version)
-                            .onPremise(onPremise)
-                            .onPremiseAPISuffix(onPremiseAPISuffix)
-                            .build();
-
-            swaggerHubClient.saveDefinitionPUT(swaggerHubRequest);
-        } catch (GradleException e) {
-            throw new GradleException(e.getMessage(), e);
-        }
+                host.get(),
+                api.get(),
+                owner.get(),
+                version.get(),
+                onPremise.get(),
+                onPremiseAPISuffix.get());
+
+        workerExecutor
+                .noIsolation()
+                .submit(
+                        SetDefaultVersionWorkAction.class,
+                        params -> {
+                            params.getHost().set(host);
+                            params.getPort().set(port);
+                            params.getProtocol().set(protocol);
+                            params.getToken().set(token);
+                            params.getOnPremise().set(onPremise);
+                            params.getOnPremiseAPISuffix().set(onPremiseAPISuffix);
+                            params.getOwner().set(owner);
+                            params.getApi().set(api);
+                            params.getVersion().set(version);
+                            params.getHttpService().set(httpService);
+                        });
+    }
+
+    /**
+     * Sets the API owner.
+     *
+     * @param value the owner
+     */
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Sets the API identifier.
+     *
+     * @param value the API
+     */
+    public void setApi(final String value) {
+        api.set(value);
+    }
+
+    /**
+     * Sets the version to promote.
+     *
+     * @param value the version
+     */
+    public void setVersion(final String value) {
+        version.set(value);
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the protocol used for requests.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.DefinitionConverter;
+
+import lombok.Getter;
+
+/**
+ * The {@code info.title}, {@code info.version} and OAS version of an API definition.
+ *
+ * <p>Only these few top-level fields are needed to name an upload, so the definition is streamed
+ * with a JSON or YAML parser that skips every other subtree and stops once the fields are found.
+ */
+@Getter
+final class SpecInfo {
+    /** Title of the API, may be {@code null}. */
+    private final String title;
+
+    /** Version of the API, may be {@code null}. */
+    private final String version;
+
+    /** OAS version, e.g. {@code 3.0.1} or {@code 2.0}, may be {@code null}. */
+    private final String oas;
+
+    private SpecInfo(final String title, final String version, final String oas) {
+        this.title = title;
+        this.version = version;
+        this.oas = oas;
+    }
+
+    /**
+     * Reads the info of a definition.
+     *
+     * @param file the definition file
+     * @param yaml whether the definition is YAML
+     * @return the info, with {@code null} fields for anything not found
+     * @throws IOException if the file cannot be read or parsed
+     */
+    static SpecInfo read(final Path file, final boolean yaml) throws IOException {
+        try (JsonParser parser = DefinitionConverter.factory(yaml).createParser(file.toFile())) {
+            return parse(parser);
+        }
+    }
+
+    /**
+     * Reads the info of a definition held in memory.
+     *
+     * @param content the definition
+     * @param yaml whether the definition is YAML
+     * @return the info, with {@code null} fields for anything not found
+     * @throws IOException if the definition cannot be parsed
+     */
+    static SpecInfo parse(final String content, final boolean yaml) throws IOException {
+        try (JsonParser parser = DefinitionConverter.factory(yaml).createParser(content)) {
+            return parse(parser);
+        }
+    }
+
+    private static SpecInfo parse(final JsonParser parser) throws IOException {
+        String title = null;
+        String version = null;
+        String oas = null;
+        boolean infoRead = false;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return new SpecInfo(null, null, null);
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME && (oas == null || !infoRead)) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("openapi".equals(name) || "swagger".equals(name)) {
+                oas = scalar(parser, value);
+            } else if ("info".equals(name) && value == JsonToken.START_OBJECT) {
+                infoRead = true;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken fieldValue = parser.nextToken();
+                    if ("title".equals(field)) {
+                        title = scalar(parser, fieldValue);
+                    } else if ("version".equals(field)) {
+                        version = scalar(parser, fieldValue);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new SpecInfo(title, version, oas);
+    }
+
+    /**
+     * Returns the text of a scalar value and skips objects and arrays.
+     *
+     * @param parser the parser positioned on the value
+     * @param value the token of the value
+     * @return the text, {@code null} for a null value or a structure
+     * @throws IOException if the value cannot be read
+     */
+    private static String scalar(final JsonParser parser, final JsonToken value)
+            throws IOException {
+        if (value == JsonToken.VALUE_NULL || !value.isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+}
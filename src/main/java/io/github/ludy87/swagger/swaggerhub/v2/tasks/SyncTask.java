@@ -0,0 +1,796 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.DisableCachingByDefault;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.slf4j.Logger;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.DefinitionConverter;
+import io.github.ludy87.swagger.swaggerhub.v2.client.Hashing;
+import io.github.ludy87.swagger.swaggerhub.v2.client.RequestExecutor;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Keeps SwaggerHub in sync with a directory of API definitions. Only definitions added or modified
+ * since the last run are uploaded, and versions of removed definitions can be unpublished or
+ * deleted. API name and version are derived like in {@link BatchUploadTask}.
+ *
+ * <p>Gradle reports the changed files of the directory. A state file additionally records the
+ * content hash, API and version of every synchronized definition, so files that were only touched
+ * are skipped, removed definitions can be mapped to their version, and a full run after a failure
+ * or a changed setting uploads only what SwaggerHub is missing.
+ */
+@Getter
+@DisableCachingByDefault(
+        because = "Task communicates with SwaggerHub and has network side effects.")
+public class SyncTask extends DefaultTask {
+    /** Keeps the versions of removed definitions on SwaggerHub. */
+    public static final String REMOVED_KEEP = "keep";
+
+    /** Unpublishes the versions of removed definitions. */
+    public static final String REMOVED_UNPUBLISH = "unpublish";
+
+    /** Deletes the versions of removed definitions. */
+    public static final String REMOVED_DELETE = "delete";
+
+    /** Logger instance for the task. */
+    private static final Logger LOGGER = Logging.getLogger(SyncTask.class);
+
+    /** Default HTTPS port used by SwaggerHub. */
+    private static final int DEFAULT_PORT = 443;
+
+    /** Default number of requests sent at the same time. */
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /** Default file name pattern, e.g. {@code petstore-1.0.0.yaml}. */
+    private static final String DEFAULT_FILE_NAME_PATTERN = "(?<api>.+?)-(?<version>\\d[^-]*)";
+
+    /** State key holding the settings the definitions were synchronized with. */
+    private static final String SETTINGS_KEY = "settings";
+
+    /** Prefix of the state keys describing a synchronized definition. */
+    private static final String FILE_KEY_PREFIX = "file.";
+
+    /** Directory holding the API definitions, searched recursively. */
+    @Incremental
+    @InputDirectory
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    private final DirectoryProperty definitionsDir;
+
+    /** File recording the synchronized definitions. */
+    @OutputFile private final RegularFileProperty stateFile;
+
+    /** API owner of all definitions. */
+    @Input private final Property<String> owner;
+
+    /** Authentication token. */
+    @Input private final Property<String> token;
+
+    /**
+     * Naming rule, {@value BatchUploadTask#NAMING_FILE_NAME} or {@value
+     * BatchUploadTask#NAMING_INFO}.
+     */
+    @Input private final Property<String> naming;
+
+    /** Pattern with the groups {@code api} and {@code version} matched against file names. */
+    @Input private final Property<String> fileNamePattern;
+
+    /** Version for all definitions, overrides the derived version. */
+    @Input @Optional private final Property<String> version;
+
+    /**
+     * Uploaded format, derived from the file extension when not set. Files in the other format are
+     * converted while they are uploaded.
+     */
+    @Input @Optional private final Property<String> format;
+
+    /** OAS version, read from the definition when not set. */
+    @Input @Optional private final Property<String> oas;
+
+    /** Flag indicating whether the APIs are private. */
+    @Input private final Property<Boolean> isPrivate;
+
+    /**
+     * Handling of removed definitions, {@value #REMOVED_KEEP}, {@value #REMOVED_UNPUBLISH} or
+     * {@value #REMOVED_DELETE}.
+     */
+    @Input private final Property<String> removedDefinitions;
+
+    /** SwaggerHub host name. */
+    @Input @Optional private final Property<String> host;
+
+    /** SwaggerHub port. */
+    @Input @Optional private final Property<Integer> port;
+
+    /** Protocol used for requests. */
+    @Input @Optional private final Property<String> protocol;
+
+    /** Indicates that an on-premise instance is used. */
+    @Input @Optional private final Property<Boolean> onPremise;
+
+    /** On-premise API suffix. */
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Compresses the uploaded definitions with gzip. */
+    @Input @Optional private final Property<Boolean> compress;
+
+    /** Uploads the canonical form of the definitions: sorted keys, no whitespace or comments. */
+    @Input @Optional private final Property<Boolean> canonicalize;
+
+    /** Maximum number of requests sent at the same time. */
+    @Input @Optional private final Property<Integer> maxConcurrentRequests;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /** Layout used to resolve relative paths. */
+    @Getter(AccessLevel.NONE)
+    private final ProjectLayout layout;
+
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties
+     * @param layout layout used to resolve relative paths
+     */
+    @Inject
+    public SyncTask(final ObjectFactory objects, final ProjectLayout layout) {
+        this.layout = layout;
+        definitionsDir = objects.directoryProperty();
+        stateFile =
+                objects.fileProperty()
+                        .convention(
+                                layout.getBuildDirectory()
+                                        .file("swaggerhub/" + getName() + ".properties"));
+        owner = objects.property(String.class);
+        token = objects.property(String.class);
+        naming = objects.property(String.class).convention(BatchUploadTask.NAMING_FILE_NAME);
+        fileNamePattern = objects.property(String.class).convention(DEFAULT_FILE_NAME_PATTERN);
+        version = objects.property(String.class);
+        format = objects.property(String.class);
+        oas = objects.property(String.class);
+        isPrivate = objects.property(Boolean.class).convention(false);
+        removedDefinitions = objects.property(String.class).convention(REMOVED_KEEP);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+        compress = objects.property(Boolean.class).convention(false);
+        canonicalize = objects.property(Boolean.class).convention(false);
+        maxConcurrentRequests =
+                objects.property(Integer.class).convention(DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+    }
+
+    /**
+     * Uploads the added and modified definitions and handles the removed ones.
+     *
+     * @param inputChanges the changes of the definitions directory since the last run
+     * @throws GradleException if a definition could not be named, uploaded or removed
+     */
+    @TaskAction
+    public void sync(final InputChanges inputChanges) throws GradleException {
+        String removal = removedDefinitions.get();
+        if (!List.of(REMOVED_KEEP, REMOVED_UNPUBLISH, REMOVED_DELETE).contains(removal)) {
+            throw new GradleException(
+                    "Unknown removedDefinitions '"
+                            + removal
+                            + "', expected "
+                            + REMOVED_KEEP
+                            + ", "
+                            + REMOVED_UNPUBLISH
+                            + " or "
+                            + REMOVED_DELETE);
+        }
+
+        Path root = definitionsDir.get().getAsFile().toPath();
+        Path statePath = stateFile.get().getAsFile().toPath();
+        Map<String, Synced> state = readState(statePath);
+        boolean incremental = inputChanges.isIncremental() && !state.isEmpty();
+
+        Set<String> changed = new TreeSet<>();
+        Set<String> removed = new TreeSet<>();
+        if (incremental) {
+            for (FileChange change : inputChanges.getFileChanges(definitionsDir)) {
+                if (change.getFileType() == FileType.DIRECTORY
+                        || !DefinitionNaming.isDefinition(change.getFile())) {
+                    continue;
+                }
+                String path = relativePath(root, change.getFile().toPath());
+                if (change.getChangeType() == ChangeType.REMOVED) {
+                    removed.add(path);
+                } else {
+                    changed.add(path);
+                }
+            }
+        } else {
+            LOGGER.info("Comparing all definitions in {} with {}", root, statePath);
+            changed.addAll(definitionFiles(root));
+            for (String path : state.keySet()) {
+                if (!changed.contains(path)) {
+                    removed.add(path);
+                }
+            }
+        }
+
+        DefinitionNaming definitionNaming =
+                new DefinitionNaming(
+                        naming.get(),
+                        fileNamePattern.get(),
+                        version.getOrNull(),
+                        format.getOrNull(),
+                        oas.getOrNull());
+        SwaggerHubRequest template =
+                SwaggerHubRequest.builder()
+                        .owner(owner.get())
+                        .isPrivate(isPrivate.get())
+                        .compress(compress.get())
+                        .canonicalize(canonicalize.get())
+                        .onPremise(onPremise.get())
+                        .onPremiseAPISuffix(onPremiseAPISuffix.get())
+                        .build();
+        List<String> uploadPaths = new ArrayList<>();
+        List<String> uploadHashes = new ArrayList<>();
+        List<SwaggerHubRequest> uploads = new ArrayList<>();
+        for (String path : changed) {
+            File file = root.resolve(path).toFile();
+            String hash = hash(file);
+            Synced synced = state.get(path);
+            if (synced != null && synced.hash.equals(hash)) {
+                LOGGER.info("{} is unchanged", path);
+                continue;
+            }
+            uploadPaths.add(path);
+            uploadHashes.add(hash);
+            uploads.add(definitionNaming.request(file, template));
+        }
+
+        List<String> removalPaths = new ArrayList<>();
+        List<Synced> removals = new ArrayList<>();
+        for (String path : removed) {
+            Synced synced = state.remove(path);
+            if (synced != null && !REMOVED_KEEP.equals(removal)) {
+                removalPaths.add(path);
+                removals.add(synced);
+            }
+        }
+        // a version still provided by another file, e.g. after a rename, must stay
+        Set<String> provided = new HashSet<>();
+        state.values().forEach(synced -> provided.add(synced.api + "/" + synced.version));
+        uploads.forEach(request -> provided.add(request.getApi() + "/" + request.getVersion()));
+        for (int i = removals.size() - 1; i >= 0; i--) {
+            if (provided.contains(removals.get(i).api + "/" + removals.get(i).version)) {
+                removals.remove(i);
+                removalPaths.remove(i);
+            }
+        }
+
+        if (uploads.isEmpty() && removals.isEmpty()) {
+            LOGGER.info("All definitions in {} are in sync", root);
+            writeState(statePath, state);
+            return;
+        }
+
+        SwaggerHubClient swaggerHubClient =
+                httpService
+                        .get()
+                        .createClient(
+                                host.get(),
+                                port.get(),
+                                protocol.get(),
+                                token.get(),
+                                onPremise.get(),
+                                onPremiseAPISuffix.get());
+        int requests = uploads.size() + removals.size();
+        int concurrency = Math.max(1, Math.min(requests, maxConcurrentRequests.get()));
+
+        List<String[]> rows = new ArrayList<>();
+        int failures = 0;
+        try (RequestExecutor executor = RequestExecutor.create(concurrency)) {
+            LOGGER.info(
+                    "Uploading {} and removing {} definitions on {} with {} concurrent requests",
+                    uploads.size(),
+                    removals.size(),
+                    host.get(),
+                    concurrency);
+
+            List<Future<Long>> uploadFutures = new ArrayList<>();
+            for (SwaggerHubRequest request : uploads) {
+                uploadFutures.add(
+                        executor.submit(
+                                () -> timed(() -> swaggerHubClient.saveDefinition(request))));
+            }
+            List<Future<Long>> removalFutures = new ArrayList<>();
+            for (Synced synced : removals) {
+                SwaggerHubRequest request =
+                        SwaggerHubRequest.builder()
+                                .owner(owner.get())
+                                .api(synced.api)
+                                .version(synced.version)
+                                .build();
+                removalFutures.add(
+                        executor.submit(
+                                () ->
+                                        timed(
+                                                () -> {
+                                                    if (REMOVED_DELETE.equals(removal)) {
+                                                        swaggerHubClient.deleteVersion(request);
+                                                    } else {
+                                                        swaggerHubClient.unpublishVersion(request);
+                                                    }
+                                                })));
+            }
+
+            for (int i = 0; i < uploads.size(); i++) {
+                SwaggerHubRequest request = uploads.get(i);
+                String[] row = {
+                    uploadPaths.get(i), request.getApi(), request.getVersion(), "", "uploaded"
+                };
+                try {
+                    row[3] = String.valueOf(uploadFutures.get(i).get());
+                    state.put(
+                            uploadPaths.get(i),
+                            new Synced(
+                                    uploadHashes.get(i), request.getApi(), request.getVersion()));
+                } catch (ExecutionException e) {
+                    row[4] = failed(uploadPaths.get(i), e);
+                    failures++;
+                }
+                rows.add(row);
+            }
+            String removedResult = REMOVED_DELETE.equals(removal) ? "deleted" : "unpublished";
+            for (int i = 0; i < removals.size(); i++) {
+                Synced synced = removals.get(i);
+                String[] row = {removalPaths.get(i), synced.api, synced.version, "", removedResult};
+                try {
+                    row[3] = String.valueOf(removalFutures.get(i).get());
+                } catch (ExecutionException e) {
+                    // keep the definition in the state, so the next run retries the removal
+                    state.put(removalPaths.get(i), synced);
+                    row[4] = failed(removalPaths.get(i), e);
+                    failures++;
+                }
+                rows.add(row);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while synchronizing API definitions", e);
+        } finally {
+            writeState(statePath, state);
+        }
+
+        getLogger().lifecycle(BatchUploadTask.table(rows));
+        if (failures > 0) {
+            throw new GradleException(
+                    "Failed to synchronize " + failures + " of " + requests + " API definitions");
+        }
+    }
+
+    /**
+     * Sets the directory holding the API definitions, resolved relative to the project directory.
+     *
+     * @param value the path of the directory
+     */
+    public void setDefinitionsDir(final String value) {
+        definitionsDir.set(layout.getProjectDirectory().dir(value));
+    }
+
+    /**
+     * Sets the file recording the synchronized definitions, resolved relative to the project
+     * directory.
+     *
+     * @param value the path of the state file
+     */
+    public void setStateFile(final String value) {
+        stateFile.set(layout.getProjectDirectory().file(value));
+    }
+
+    /**
+     * Sets the API owner of all definitions.
+     *
+     * @param value the owner
+     */
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets the naming rule.
+     *
+     * @param value {@value BatchUploadTask#NAMING_FILE_NAME} or {@value
+     *     BatchUploadTask#NAMING_INFO}
+     */
+    public void setNaming(final String value) {
+        naming.set(value);
+    }
+
+    /**
+     * Sets the pattern matched against the file names without extension.
+     *
+     * @param value a regular expression with the named groups {@code api} and {@code version}
+     */
+    public void setFileNamePattern(final String value) {
+        fileNamePattern.set(value);
+    }
+
+    /**
+     * Sets a version for all definitions.
+     *
+     * @param value the version
+     */
+    public void setVersion(final String value) {
+        version.set(value);
+    }
+
+    /**
+     * Sets the format all definitions are uploaded in, files in the other format are converted.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets the OAS version of all definitions.
+     *
+     * @param value the OAS version
+     */
+    public void setOas(final String value) {
+        oas.set(value);
+    }
+
+    /**
+     * Sets whether the APIs are private.
+     *
+     * @param value the private flag
+     */
+    public void setIsPrivate(final Boolean value) {
+        isPrivate.set(value);
+    }
+
+    /**
+     * Sets how the versions of removed definitions are handled.
+     *
+     * @param value {@value #REMOVED_KEEP}, {@value #REMOVED_UNPUBLISH} or {@value #REMOVED_DELETE}
+     */
+    public void setRemovedDefinitions(final String value) {
+        removedDefinitions.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the protocol used for requests.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
+    }
+
+    /**
+     * Sets whether the uploaded definitions are gzip compressed.
+     *
+     * @param value the compress flag
+     */
+    public void setCompress(final Boolean value) {
+        compress.set(value);
+    }
+
+    /**
+     * Sets whether the canonical form of the definitions is uploaded.
+     *
+     * @param value the canonicalize flag
+     */
+    public void setCanonicalize(final Boolean value) {
+        canonicalize.set(value);
+    }
+
+    /**
+     * Sets the maximum number of requests sent at the same time.
+     *
+     * @param value the concurrency limit
+     */
+    public void setMaxConcurrentRequests(final Integer value) {
+        maxConcurrentRequests.set(value);
+    }
+
+    /**
+     * Describes the settings that determine what a definition is uploaded as. Definitions
+     * synchronized with other settings are uploaded again.
+     *
+     * @return the settings fingerprint
+     */
+    private String settings() {
+        return String.join(
+                "|",
+                protocol.get(),
+                host.get(),
+                String.valueOf(port.get()),
+                String.valueOf(onPremise.get()),
+                onPremiseAPISuffix.get(),
+                owner.get(),
+                naming.get(),
+                fileNamePattern.get(),
+                version.getOrElse(""),
+                format.getOrElse(""),
+                oas.getOrElse(""),
+                String.valueOf(isPrivate.get()),
+                String.valueOf(canonicalize.get()));
+    }
+
+    /**
+     * Reads the synchronized definitions, ignoring a state written with other settings.
+     *
+     * @param statePath the state file
+     * @return the synchronized definitions by relative path
+     * @throws GradleException if the state file cannot be read
+     */
+    private Map<String, Synced> readState(final Path statePath) throws GradleException {
+        Map<String, Synced> state = new TreeMap<>();
+        if (!Files.isRegularFile(statePath)) {
+            return state;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(statePath)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new GradleException("Failed to read sync state " + statePath, e);
+        }
+        if (!settings().equals(properties.getProperty(SETTINGS_KEY))) {
+            LOGGER.info("Settings changed since the last sync, uploading all definitions");
+            return state;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(FILE_KEY_PREFIX) && key.endsWith(".sha256")) {
+                String path =
+                        key.substring(FILE_KEY_PREFIX.length(), key.length() - ".sha256".length());
+                state.put(
+                        path,
+                        new Synced(
+                                properties.getProperty(key),
+                                properties.getProperty(FILE_KEY_PREFIX + path + ".api"),
+                                properties.getProperty(FILE_KEY_PREFIX + path + ".version")));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Writes the synchronized definitions.
+     *
+     * @param statePath the state file
+     * @param state the synchronized definitions by relative path
+     * @throws GradleException if the state file cannot be written
+     */
+    private void writeState(final Path statePath, final Map<String, Synced> state)
+            throws GradleException {
+        Properties properties = new Properties();
+        properties.setProperty(SETTINGS_KEY, settings());
+        state.forEach(
+                (path, synced) -> {
+                    properties.setProperty(FILE_KEY_PREFIX + path + ".sha256", synced.hash);
+                    properties.setProperty(FILE_KEY_PREFIX + path + ".api", synced.api);
+                    properties.setProperty(FILE_KEY_PREFIX + path + ".version", synced.version);
+                });
+        try {
+            Files.createDirectories(statePath.getParent());
+            try (OutputStream out = Files.newOutputStream(statePath)) {
+                properties.store(out, "Definitions synchronized by " + getPath());
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to write sync state " + statePath, e);
+        }
+    }
+
+    /**
+     * Lists the definition files below a directory.
+     *
+     * @param root the directory
+     * @return the relative paths of the definition files
+     * @throws GradleException if the directory cannot be read
+     */
+    private static List<String> definitionFiles(final Path root) throws GradleException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> DefinitionNaming.isDefinition(file.toFile()))
+                    .map(file -> relativePath(root, file))
+                    .toList();
+        } catch (IOException | UncheckedIOException e) {
+            throw new GradleException("Failed to list API definitions in " + root, e);
+        }
+    }
+
+    /**
+     * Returns the path of a file relative to the definitions directory, with {@code /} separators.
+     *
+     * @param root the definitions directory
+     * @param file the file
+     * @return the relative path
+     */
+    private static String relativePath(final Path root, final Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Computes the fingerprint of a definition the same way the upload task does, see {@link
+     * Hashing#definitionHash(File, boolean, boolean)}.
+     *
+     * @param file the file
+     * @return the hex encoded hash
+     * @throws GradleException if the file cannot be read
+     */
+    private String hash(final File file) throws GradleException {
+        try {
+            return Hashing.definitionHash(
+                    file,
+                    canonicalize.get(),
+                    DefinitionConverter.isYaml(DefinitionNaming.formatOf(file)));
+        } catch (IOException e) {
+            throw new GradleException("Failed to read API definition " + file, e);
+        }
+    }
+
+    /**
+     * Runs a request and measures its duration.
+     *
+     * @param request the request
+     * @return the duration in milliseconds
+     */
+    private static long timed(final Runnable request) {
+        long start = System.nanoTime();
+        request.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Logs a failed request and returns its result cell.
+     *
+     * @param path the relative path of the definition
+     * @param e the failure
+     * @return the result cell
+     */
+    private static String failed(final String path, final ExecutionException e) {
+        Throwable cause = e.getCause() == null ? e : e.getCause();
+        LOGGER.error("Failed to synchronize {}: {}", path, cause.getMessage());
+        return "FAILED: " + cause.getMessage();
+    }
+
+    /** Content hash, API and version a definition was synchronized as. */
+    private static final class Synced {
+        /** SHA-256 hash of the uploaded file. */
+        private final String hash;
+
+        /** API name. */
+        private final String api;
+
+        /** API version. */
+        private final String version;
+
+        /**
+         * Creates the record of a synchronized definition.
+         *
+         * @param hash the content hash
+         * @param api the API name
+         * @param version the API version
+         */
+        Synced(final String hash, final String api, final String version) {
+            this.hash = hash;
+            this.api = api;
+            this.version = version;
+        }
+    }
+}
@@ -31,33 +31,36 @@
  */
 package io.github.ludy87.swagger.swaggerhub.v2.tasks;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import javax.inject.Inject;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.GradleException;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.work.DisableCachingByDefault;
+import org.gradle.workers.WorkerExecutor;
 import org.slf4j.Logger;
 
-import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
-import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+import io.github.ludy87.swagger.swaggerhub.v2.workers.UploadWorkAction;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
 /** Uploads API definition to SwaggerHub. */
 @Getter
-@Setter
 @DisableCachingByDefault(
         because = "Task communicates with SwaggerHub and has network side effects.")
 public class UploadTask extends DefaultTask {
@@ -68,93 +71,350 @@ public class UploadTask extends DefaultTask {
     private static final int DEFAULT_PORT = 443;
 
     /** API owner. */
-    @Input private String owner;
+    @Input private final Property<String> owner;
 
     /** API identifier. */
-    @Input private String api;
+    @Input private final Property<String> api;
 
     /** API version. */
-    @Input private String version;
+    @Input private final Property<String> version;
 
     /** Authentication token. */
-    @Input private String token;
+    @Input private final Property<String> token;
 
-    /** Path to the API definition file. */
+    /** API definition file. */
     @InputFile
     @PathSensitive(PathSensitivity.RELATIVE)
-    private String inputFile;
+    private final RegularFileProperty inputFile;
 
     /** Flag indicating whether the API is private. */
-    @Input private Boolean isPrivate = false;
+    @Input private final Property<Boolean> isPrivate;
 
     /** SwaggerHub host name. */
-    @Input @Optional private String host = "api.swaggerhub.com";
+    @Input @Optional private final Property<String> host;
 
     /** SwaggerHub port. */
-    @Input @Optional private Integer port = DEFAULT_PORT;
+    @Input @Optional private final Property<Integer> port;
 
     /** Protocol used for requests. */
-    @Input @Optional private String protocol = "https";
+    @Input @Optional private final Property<String> protocol;
 
     /** Response format. */
-    @Input @Optional private String format = "json";
+    @Input @Optional private final Property<String> format;
+
+    /** Format of the input file, converted to {@link #format} while it is uploaded. */
+    @Input @Optional private final Property<String> fileFormat;
 
     /** OAS version. */
-    @Input @Optional private String oas = "2.0";
+    @Input @Optional private final Property<String> oas;
 
     /** Indicates that an on-premise instance is used. */
-    @Input @Optional private Boolean onPremise = false;
+    @Input @Optional private final Property<Boolean> onPremise;
 
     /** On-premise API suffix. */
-    @Input @Optional private String onPremiseAPISuffix = "v1";
+    @Input @Optional private final Property<String> onPremiseAPISuffix;
+
+    /** Compresses the uploaded definition with gzip. */
+    @Input @Optional private final Property<Boolean> compress;
+
+    /** Uploads the canonical form of the definition: sorted keys, no whitespace or comments. */
+    @Input @Optional private final Property<Boolean> canonicalize;
+
+    /** Skips the upload when the definition is unchanged since the last successful upload. */
+    @Input @Optional private final Property<Boolean> skipIfUnchanged;
+
+    /** Holds the content hash of the last successful upload. */
+    @OutputFile private final RegularFileProperty stateFile;
+
+    /** Shared HTTP service providing the pooled client. */
+    @Internal private final Property<SwaggerHubHttpService> httpService;
+
+    /** Executor running the network calls outside of the task thread. */
+    @Getter(AccessLevel.NONE)
+    private final WorkerExecutor workerExecutor;
 
-    /** SwaggerHub client used to perform the upload. */
-    @Internal private SwaggerHubClient swaggerHubClient;
+    /**
+     * Creates the task and connects it to the shared SwaggerHub HTTP service.
+     *
+     * @param objects factory for the task properties
+     * @param layout layout providing the default location of the upload state
+     * @param workerExecutor executor running the network calls outside of the task thread
+     */
+    @Inject
+    public UploadTask(
+            final ObjectFactory objects,
+            final ProjectLayout layout,
+            final WorkerExecutor workerExecutor) {
+        this.workerExecutor = workerExecutor;
+        owner = objects.property(String.class);
+        api = objects.property(String.class);
+        version = objects.property(String.class);
+        token = objects.property(String.class);
+        inputFile = objects.fileProperty();
+        isPrivate = objects.property(Boolean.class).convention(false);
+        host = objects.property(String.class).convention("api.swaggerhub.com");
+        port = objects.property(Integer.class).convention(DEFAULT_PORT);
+        protocol = objects.property(String.class).convention("https");
+        format = objects.property(String.class).convention("json");
+        fileFormat = objects.property(String.class);
+        oas = objects.property(String.class).convention("2.0");
+        onPremise = objects.property(Boolean.class).convention(false);
+        onPremiseAPISuffix = objects.property(String.class).convention("v1");
+
+        Provider<SwaggerHubHttpService> service =
+                SwaggerHubHttpService.registerIfAbsent(getProject());
+        httpService = objects.property(SwaggerHubHttpService.class);
+        httpService.convention(service);
+        usesService(service);
+
+        compress = objects.property(Boolean.class).convention(false);
+        canonicalize = objects.property(Boolean.class).convention(false);
+        skipIfUnchanged = objects.property(Boolean.class).convention(false);
+        stateFile =
+                objects.fileProperty()
+                        .convention(
+                                layout.getBuildDirectory()
+                                        .file("swaggerhub/" + getName() + "-upload.properties"));
+
+        // without skipIfUnchanged every run uploads, e.g. to restore a definition edited online
+        Property<Boolean> skipMode = skipIfUnchanged;
+        getOutputs().upToDateWhen(task -> skipMode.get());
+    }
 
     /**
-     * Uploads the API definition to SwaggerHub.
+     * Submits the upload of the API definition to the worker executor, so it runs in parallel with
+     * other work of the build.
      *
      * @throws GradleException if there is an error during the upload process
      */
     @TaskAction
     public void uploadDefinition() throws GradleException {
-        swaggerHubClient =
-                SwaggerHubClient.createOnPremise(
-                        host, port, protocol, token, onPremise, onPremiseAPISuffix);
         LOGGER.info(
                 "Uploading to {}: api={}, owner={}, version={}, inputFile={}, format={}, "
                         + "isPrivate={}, oas={}, onPremise={}, onPremiseAPISuffix={}",
-                host,
-                api,
-                owner,
-                version,
-                inputFile,
-                format,
-                isPrivate,
-                oas,
-                onPremise,
-                onPremiseAPISuffix);
-
-        try {
-            String content =
-                    new String(Files.readAllBytes(Paths.get(inputFile)), StandardCharsets.UTF_8);
-
-            SwaggerHubRequest swaggerHubRequest =
-                    SwaggerHubRequest.builder()
-                            .api(api)
-                            .owner(owner)
-                            .version(version)
-                            .format(format)
-                            .swagger(content)
-                            .oas(oas)
-                            .onPremise(onPremise)
-                            .onPremiseAPISuffix(onPremiseAPISuffix)
-                            .isPrivate(isPrivate)
-                            .build();
-
-            swaggerHubClient.saveDefinition(swaggerHubRequest);
-        } catch (IOException | GradleException e) {
-            throw new GradleException(e.getMessage(), e);
-        }
+                host.get(),
+                api.get(),
+                owner.get(),
+                version.get(),
+                inputFile.get().getAsFile(),
+                format.get(),
+                isPrivate.get(),
+                oas.get(),
+                onPremise.get(),
+                onPremiseAPISuffix.get());
+
+        workerExecutor
+                .noIsolation()
+                .submit(
+                        UploadWorkAction.class,
+                        params -> {
+                            params.getHost().set(host);
+                            params.getPort().set(port);
+                            params.getProtocol().set(protocol);
+                            params.getToken().set(token);
+                            params.getOnPremise().set(onPremise);
+                            params.getOnPremiseAPISuffix().set(onPremiseAPISuffix);
+                            params.getOwner().set(owner);
+                            params.getApi().set(api);
+                            params.getVersion().set(version);
+                            params.getHttpService().set(httpService);
+                            params.getInputFile().set(inputFile);
+                            params.getFormat().set(format);
+                            params.getFileFormat().set(fileFormat);
+                            params.getOas().set(oas);
+                            params.getIsPrivate().set(isPrivate);
+                            params.getCompress().set(compress);
+                            params.getCanonicalize().set(canonicalize);
+                            params.getSkipIfUnchanged().set(skipIfUnchanged);
+                            params.getStateFile().set(stateFile);
+                            params.getStateKey().set(stateKey());
+                        });
+    }
+
+    /**
+     * Sets the API owner.
+     *
+     * @param value the owner
+     */
+    public void setOwner(final String value) {
+        owner.set(value);
+    }
+
+    /**
+     * Sets the API identifier.
+     *
+     * @param value the API
+     */
+    public void setApi(final String value) {
+        api.set(value);
+    }
+
+    /**
+     * Sets the API version.
+     *
+     * @param value the version
+     */
+    public void setVersion(final String value) {
+        version.set(value);
+    }
+
+    /**
+     * Sets the authentication token.
+     *
+     * @param value the token
+     */
+    public void setToken(final String value) {
+        token.set(value);
+    }
+
+    /**
+     * Sets the API definition file, resolved relative to the project directory.
+     *
+     * @param value the path of the input file
+     */
+    public void setInputFile(final String value) {
+        inputFile.set(getProject().file(value));
+    }
+
+    /**
+     * Sets whether the API is private.
+     *
+     * @param value the private flag
+     */
+    public void setIsPrivate(final Boolean value) {
+        isPrivate.set(value);
+    }
+
+    /**
+     * Sets whether the uploaded definition is gzip compressed.
+     *
+     * @param value the compress flag
+     */
+    public void setCompress(final Boolean value) {
+        compress.set(value);
+    }
+
+    /**
+     * Sets whether the canonical form of the definition is uploaded.
+     *
+     * @param value the canonicalize flag
+     */
+    public void setCanonicalize(final Boolean value) {
+        canonicalize.set(value);
+    }
+
+    /**
+     * Sets whether the upload is skipped when the definition is unchanged.
+     *
+     * @param value the skip flag
+     */
+    public void setSkipIfUnchanged(final Boolean value) {
+        skipIfUnchanged.set(value);
+    }
+
+    /**
+     * Sets the file holding the hash of the last upload, resolved relative to the project
+     * directory.
+     *
+     * @param value the path of the state file
+     */
+    public void setStateFile(final String value) {
+        stateFile.set(getProject().file(value));
+    }
+
+    /**
+     * Sets the SwaggerHub host name.
+     *
+     * @param value the host
+     */
+    public void setHost(final String value) {
+        host.set(value);
+    }
+
+    /**
+     * Sets the SwaggerHub port.
+     *
+     * @param value the port
+     */
+    public void setPort(final Integer value) {
+        port.set(value);
+    }
+
+    /**
+     * Sets the protocol used for requests.
+     *
+     * @param value the protocol, {@code http} or {@code https}
+     */
+    public void setProtocol(final String value) {
+        protocol.set(value);
+    }
+
+    /**
+     * Sets the format of the definition.
+     *
+     * @param value the format, {@code json} or {@code yaml}
+     */
+    public void setFormat(final String value) {
+        format.set(value);
+    }
+
+    /**
+     * Sets the format of the input file when it differs from the uploaded format.
+     *
+     * @param value the file format, {@code json} or {@code yaml}
+     */
+    public void setFileFormat(final String value) {
+        fileFormat.set(value);
+    }
+
+    /**
+     * Sets the OAS version.
+     *
+     * @param value the OAS version
+     */
+    public void setOas(final String value) {
+        oas.set(value);
+    }
+
+    /**
+     * Sets whether an on-premise instance is used.
+     *
+     * @param value the on-premise flag
+     */
+    public void setOnPremise(final Boolean value) {
+        onPremise.set(value);
+    }
+
+    /**
+     * Sets the API suffix for on-premise installations.
+     *
+     * @param value the API suffix
+     */
+    public void setOnPremiseAPISuffix(final String value) {
+        onPremiseAPISuffix.set(value);
+    }
+
+    /**
+     * Builds the key identifying the upload target and settings in the state file, so that a stored
+     * hash is never reused after the task configuration changed.
+     *
+     * @return the state key
+     */
+    private String stateKey() {
+        return String.join(
+                "|",
+                protocol.get(),
+                host.get(),
+                String.valueOf(port.get()),
+                String.valueOf(onPremise.get()),
+                onPremiseAPISuffix.get(),
+                owner.get(),
+                api.get(),
+                version.get(),
+                format.get(),
+                fileFormat.getOrElse(""),
+                oas.get(),
+                String.valueOf(isPrivate.get()),
+                String.valueOf(canonicalize.get()));
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.DownloadResult;
+
+import lombok.Getter;
+
+/**
+ * ETag and Last-Modified validators of a downloaded definition, persisted in a sidecar file.
+ *
+ * <p>The validators are only reused while the output file is unchanged since it was written, so a
+ * deleted or locally edited output always triggers a full download.
+ */
+@Getter
+final class DownloadValidators {
+    private static final String KEY = "key";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String OUTPUT_LENGTH = "outputLength";
+    private static final String OUTPUT_TIMESTAMP = "outputTimestamp";
+
+    /** ETag validator, may be {@code null}. */
+    private final String eTag;
+
+    /** Last-Modified validator, may be {@code null}. */
+    private final String lastModified;
+
+    private DownloadValidators(final String eTag, final String lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Loads the validators stored for the given request key.
+     *
+     * @param sidecar the sidecar file holding the validators
+     * @param key identifies the requested definition
+     * @param outputFile the file the definition was written to
+     * @return the stored validators, or {@code null} if they cannot be reused
+     */
+    static DownloadValidators load(final File sidecar, final String key, final File outputFile) {
+        if (!sidecar.isFile() || !outputFile.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(sidecar.toPath())) {
+            properties.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!key.equals(properties.getProperty(KEY))
+                || !String.valueOf(outputFile.length())
+                        .equals(properties.getProperty(OUTPUT_LENGTH))
+                || !String.valueOf(outputFile.lastModified())
+                        .equals(properties.getProperty(OUTPUT_TIMESTAMP))) {
+            return null;
+        }
+        String eTag = properties.getProperty(ETAG);
+        String lastModified = properties.getProperty(LAST_MODIFIED);
+        if (eTag == null && lastModified == null) {
+            return null;
+        }
+        return new DownloadValidators(eTag, lastModified);
+    }
+
+    /**
+     * Stores the validators of a completed download, or removes the sidecar if SwaggerHub did not
+     * send any.
+     *
+     * @param sidecar the sidecar file holding the validators
+     * @param key identifies the requested definition
+     * @param outputFile the file the definition was written to
+     * @param result the download result carrying the validators
+     * @throws IOException if the sidecar file cannot be written
+     */
+    static void store(
+            final File sidecar,
+            final String key,
+            final File outputFile,
+            final DownloadResult result)
+            throws IOException {
+        if (result.getETag() == null && result.getLastModified() == null) {
+            Files.deleteIfExists(sidecar.toPath());
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(KEY, key);
+        properties.setProperty(OUTPUT_LENGTH, String.valueOf(outputFile.length()));
+        properties.setProperty(OUTPUT_TIMESTAMP, String.valueOf(outputFile.lastModified()));
+        if (result.getETag() != null) {
+            properties.setProperty(ETAG, result.getETag());
+        }
+        if (result.getLastModified() != null) {
+            properties.setProperty(LAST_MODIFIED, result.getLastModified());
+        }
+        Files.createDirectories(sidecar.getParentFile().toPath());
+        try (OutputStream out = Files.newOutputStream(sidecar.toPath())) {
+            properties.store(out, "SwaggerHub download validators");
+        }
+    }
+}
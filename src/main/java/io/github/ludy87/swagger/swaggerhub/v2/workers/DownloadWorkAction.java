@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.DownloadResult;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+
+/** Downloads an API definition, sending the validators of the previous download. */
+public abstract class DownloadWorkAction
+        extends SwaggerHubWorkAction<DownloadWorkAction.Parameters> {
+    /** Logger instance for the action. */
+    private static final Logger LOGGER = Logging.getLogger(DownloadWorkAction.class);
+
+    /** Parameters of the download. */
+    public interface Parameters extends SwaggerHubWorkParameters {
+        /**
+         * Returns the file the definition is written to.
+         *
+         * @return the output file
+         */
+        RegularFileProperty getOutputFile();
+
+        /**
+         * Returns the requested format.
+         *
+         * @return the format
+         */
+        Property<String> getFormat();
+
+        /**
+         * Returns the format the output file is written in, unset for the requested format.
+         *
+         * @return the file format
+         */
+        Property<String> getFileFormat();
+
+        /**
+         * Returns whether a resolved definition is requested.
+         *
+         * @return the resolved flag
+         */
+        Property<Boolean> getResolved();
+
+        /**
+         * Returns whether external references are resolved locally.
+         *
+         * @return the bundle flag
+         */
+        Property<Boolean> getBundle();
+
+        /**
+         * Returns the file storing the validators of the previous download.
+         *
+         * @return the validators file
+         */
+        RegularFileProperty getValidatorsFile();
+
+        /**
+         * Returns the key identifying the definition in the validators file.
+         *
+         * @return the validators key
+         */
+        Property<String> getValidatorsKey();
+    }
+
+    @Override
+    public void execute() {
+        Parameters params = getParameters();
+        SwaggerHubRequest swaggerHubRequest =
+                SwaggerHubRequest.builder()
+                        .api(params.getApi().get())
+                        .owner(params.getOwner().get())
+                        .version(params.getVersion().get())
+                        .onPremise(params.getOnPremise().get())
+                        .onPremiseAPISuffix(params.getOnPremiseAPISuffix().get())
+                        .format(params.getFormat().get())
+                        .fileFormat(params.getFileFormat().getOrNull())
+                        .resolved(params.getResolved().get())
+                        .bundle(params.getBundle().get())
+                        .build();
+
+        download(
+                createClient(),
+                swaggerHubRequest,
+                params.getOutputFile().get().getAsFile(),
+                params.getValidatorsFile().get().getAsFile(),
+                params.getValidatorsKey().get());
+    }
+
+    /**
+     * Tells whether validators of a previous download are available, i.e. whether a download would
+     * be a conditional request.
+     *
+     * @param validatorsFile the file storing the validators of the previous download
+     * @param validatorsKey the key identifying the definition in the validators file
+     * @param file the output file
+     * @return {@code true} if validators for the unchanged output file are stored
+     */
+    public static boolean hasValidators(
+            final File validatorsFile, final String validatorsKey, final File file) {
+        return DownloadValidators.load(validatorsFile, validatorsKey, file) != null;
+    }
+
+    /**
+     * Downloads a definition, sending the validators of the previous download, and stores the
+     * validators of the response. The output file is left untouched if SwaggerHub reports the
+     * definition unchanged.
+     *
+     * @param client the client used for the download
+     * @param swaggerHubRequest the request, without validators
+     * @param file the output file
+     * @param validatorsFile the file storing the validators of the previous download
+     * @param validatorsKey the key identifying the definition in the validators file
+     * @return {@code true} if the output file was written, {@code false} if it is unchanged
+     * @throws GradleException if the download fails
+     */
+    public static boolean download(
+            final SwaggerHubClient client,
+            final SwaggerHubRequest swaggerHubRequest,
+            final File file,
+            final File validatorsFile,
+            final String validatorsKey)
+            throws GradleException {
+        DownloadValidators validators =
+                DownloadValidators.load(validatorsFile, validatorsKey, file);
+        SwaggerHubRequest conditionalRequest =
+                swaggerHubRequest.toBuilder()
+                        .eTag(validators != null ? validators.getETag() : null)
+                        .lastModified(validators != null ? validators.getLastModified() : null)
+                        .build();
+
+        try {
+            DownloadResult result = client.downloadDefinition(conditionalRequest, file.toPath());
+            if (result.isNotModified()) {
+                LOGGER.lifecycle(
+                        "Definition {}/{}/{} not modified, keeping {}",
+                        swaggerHubRequest.getOwner(),
+                        swaggerHubRequest.getApi(),
+                        swaggerHubRequest.getVersion(),
+                        file);
+                return false;
+            }
+
+            DownloadValidators.store(validatorsFile, validatorsKey, file, result);
+            return true;
+        } catch (IOException | GradleException e) {
+            throw new GradleException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import org.gradle.api.GradleException;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+
+/** Sets the default version of an API. */
+public abstract class SetDefaultVersionWorkAction
+        extends SwaggerHubWorkAction<SwaggerHubWorkParameters> {
+
+    @Override
+    public void execute() {
+        SwaggerHubWorkParameters params = getParameters();
+        try {
+            createClient()
+                    .saveDefinitionPUT(
+                            SwaggerHubRequest.builder()
+                                    .api(params.getApi().get())
+                                    .owner(params.getOwner().get())
+                                    .version(params.getVersion().get())
+                                    .onPremise(params.getOnPremise().get())
+                                    .onPremiseAPISuffix(params.getOnPremiseAPISuffix().get())
+                                    .build());
+        } catch (GradleException e) {
+            throw new GradleException(e.getMessage(), e);
+        }
+    }
+}
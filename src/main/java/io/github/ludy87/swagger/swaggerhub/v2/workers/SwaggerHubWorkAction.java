@@ -0,0 +1,48 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import org.gradle.workers.WorkAction;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubClient;
+
+/**
+ * Base class of the SwaggerHub work actions.
+ *
+ * @param <P> the parameter type of the action
+ */
+public abstract class SwaggerHubWorkAction<P extends SwaggerHubWorkParameters>
+        implements WorkAction<P> {
+
+    /**
+     * Creates a client for the configured SwaggerHub instance using the shared HTTP client and
+     * definition cache.
+     *
+     * @return the SwaggerHub client
+     */
+    protected SwaggerHubClient createClient() {
+        P params = getParameters();
+        return params.getHttpService()
+                .get()
+                .createClient(
+                        params.getHost().get(),
+                        params.getPort().get(),
+                        params.getProtocol().get(),
+                        params.getToken().getOrNull(),
+                        params.getOnPremise().get(),
+                        params.getOnPremiseAPISuffix().get());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkParameters;
+
+import io.github.ludy87.swagger.swaggerhub.v2.services.SwaggerHubHttpService;
+
+/** Connection and API coordinates shared by all SwaggerHub work actions. */
+public interface SwaggerHubWorkParameters extends WorkParameters {
+    /**
+     * Returns the SwaggerHub host name.
+     *
+     * @return the host
+     */
+    Property<String> getHost();
+
+    /**
+     * Returns the SwaggerHub port.
+     *
+     * @return the port
+     */
+    Property<Integer> getPort();
+
+    /**
+     * Returns the protocol used for requests.
+     *
+     * @return the protocol, {@code http} or {@code https}
+     */
+    Property<String> getProtocol();
+
+    /**
+     * Returns the authentication token.
+     *
+     * @return the token, may be absent
+     */
+    Property<String> getToken();
+
+    /**
+     * Returns whether an on-premise instance is used.
+     *
+     * @return the on-premise flag
+     */
+    Property<Boolean> getOnPremise();
+
+    /**
+     * Returns the on-premise API suffix.
+     *
+     * @return the API suffix
+     */
+    Property<String> getOnPremiseAPISuffix();
+
+    /**
+     * Returns the owner of the API.
+     *
+     * @return the owner
+     */
+    Property<String> getOwner();
+
+    /**
+     * Returns the API identifier.
+     *
+     * @return the API
+     */
+    Property<String> getApi();
+
+    /**
+     * Returns the API version.
+     *
+     * @return the version
+     */
+    Property<String> getVersion();
+
+    /**
+     * Returns the shared HTTP service.
+     *
+     * @return the HTTP service
+     */
+    Property<SwaggerHubHttpService> getHttpService();
+}
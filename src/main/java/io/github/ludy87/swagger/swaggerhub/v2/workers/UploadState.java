@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.Hashing;
+
+/**
+ * Content hash of the last successfully uploaded definition, persisted in a state file.
+ *
+ * <p>The hash is computed with {@link Hashing#definitionHash(File, boolean, boolean)}, so the
+ * upload and sync tasks treat the same edits as changes.
+ */
+final class UploadState {
+    private static final String KEY = "key";
+    private static final String HASH = "sha256";
+
+    private UploadState() {}
+
+    /**
+     * Checks whether the given hash was the last one uploaded for the request key.
+     *
+     * @param stateFile the file holding the upload state
+     * @param key identifies the upload target and settings
+     * @param hash the hash of the definition to upload
+     * @return {@code true} if the same definition was already uploaded
+     */
+    static boolean isUnchanged(final File stateFile, final String key, final String hash) {
+        if (!stateFile.isFile()) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile.toPath())) {
+            properties.load(in);
+        } catch (IOException e) {
+            return false;
+        }
+        return key.equals(properties.getProperty(KEY)) && hash.equals(properties.getProperty(HASH));
+    }
+
+    /**
+     * Stores the hash of a successful upload.
+     *
+     * @param stateFile the file holding the upload state
+     * @param key identifies the upload target and settings
+     * @param hash the hash of the uploaded definition
+     * @throws IOException if the state file cannot be written
+     */
+    static void store(final File stateFile, final String key, final String hash)
+            throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY, key);
+        properties.setProperty(HASH, hash);
+        Files.createDirectories(stateFile.getParentFile().toPath());
+        try (OutputStream out = Files.newOutputStream(stateFile.toPath())) {
+            properties.store(out, "SwaggerHub upload state");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.DefinitionConverter;
+import io.github.ludy87.swagger.swaggerhub.v2.client.Hashing;
+import io.github.ludy87.swagger.swaggerhub.v2.client.SwaggerHubRequest;
+
+/**
+ * Uploads an API definition file, streaming it from disk. The hash of every successful upload is
+ * stored, so an unchanged definition can be skipped on the next run.
+ */
+public abstract class UploadWorkAction extends SwaggerHubWorkAction<UploadWorkAction.Parameters> {
+    /** Logger instance for the upload. */
+    private static final Logger LOGGER = Logging.getLogger(UploadWorkAction.class);
+
+    /** Parameters of the upload. */
+    public interface Parameters extends SwaggerHubWorkParameters {
+        /**
+         * Returns the file holding the API definition.
+         *
+         * @return the input file
+         */
+        RegularFileProperty getInputFile();
+
+        /**
+         * Returns the format of the definition.
+         *
+         * @return the format
+         */
+        Property<String> getFormat();
+
+        /**
+         * Returns the format of the input file, unset if it is the uploaded format.
+         *
+         * @return the file format
+         */
+        Property<String> getFileFormat();
+
+        /**
+         * Returns the OAS version of the definition.
+         *
+         * @return the OAS version
+         */
+        Property<String> getOas();
+
+        /**
+         * Returns whether the API is private.
+         *
+         * @return the private flag
+         */
+        Property<Boolean> getIsPrivate();
+
+        /**
+         * Returns whether the definition is gzip compressed.
+         *
+         * @return the compress flag
+         */
+        Property<Boolean> getCompress();
+
+        /**
+         * Returns whether the canonical form of the definition is uploaded.
+         *
+         * @return the canonicalize flag
+         */
+        Property<Boolean> getCanonicalize();
+
+        /**
+         * Returns whether the upload is skipped when the definition is unchanged.
+         *
+         * @return the skip flag
+         */
+        Property<Boolean> getSkipIfUnchanged();
+
+        /**
+         * Returns the file holding the hash of the last successful upload.
+         *
+         * @return the state file
+         */
+        RegularFileProperty getStateFile();
+
+        /**
+         * Returns the key identifying the upload target and settings in the state file.
+         *
+         * @return the state key
+         */
+        Property<String> getStateKey();
+    }
+
+    @Override
+    public void execute() {
+        Parameters params = getParameters();
+        File definition = params.getInputFile().get().getAsFile();
+        File stateFile = params.getStateFile().get().getAsFile();
+        String stateKey = params.getStateKey().get();
+        boolean canonicalize = params.getCanonicalize().get();
+        String hash;
+        try {
+            hash =
+                    Hashing.definitionHash(
+                            definition,
+                            canonicalize,
+                            DefinitionConverter.isYaml(
+                                    params.getFileFormat().orElse(params.getFormat()).get()));
+        } catch (IOException e) {
+            throw new GradleException("Failed to read API definition: " + e.getMessage(), e);
+        }
+
+        if (params.getSkipIfUnchanged().get()
+                && UploadState.isUnchanged(stateFile, stateKey, hash)) {
+            LOGGER.lifecycle(
+                    "Definition {}/{}/{} unchanged since the last upload, skipping",
+                    params.getOwner().get(),
+                    params.getApi().get(),
+                    params.getVersion().get());
+            return;
+        }
+
+        try {
+            createClient()
+                    .saveDefinition(
+                            SwaggerHubRequest.builder()
+                                    .api(params.getApi().get())
+                                    .owner(params.getOwner().get())
+                                    .version(params.getVersion().get())
+                                    .onPremise(params.getOnPremise().get())
+                                    .onPremiseAPISuffix(params.getOnPremiseAPISuffix().get())
+                                    .format(params.getFormat().get())
+                                    .fileFormat(params.getFileFormat().getOrNull())
+                                    .definitionFile(definition.toPath())
+                                    .oas(params.getOas().get())
+                                    .isPrivate(params.getIsPrivate().get())
+                                    .compress(params.getCompress().get())
+                                    .canonicalize(canonicalize)
+                                    .build());
+        } catch (GradleException e) {
+            throw new GradleException(e.getMessage(), e);
+        }
+
+        try {
+            UploadState.store(stateFile, stateKey, hash);
+        } catch (IOException e) {
+            LOGGER.warn("Could not store upload state in {}: {}", stateFile, e.getMessage());
+        }
+    }
+}
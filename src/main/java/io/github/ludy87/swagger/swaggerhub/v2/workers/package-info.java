@@ -0,0 +1,2 @@
+/** Gradle worker actions that perform the SwaggerHub network calls of the plugin tasks. */
+package io.github.ludy87.swagger.swaggerhub.v2.workers;
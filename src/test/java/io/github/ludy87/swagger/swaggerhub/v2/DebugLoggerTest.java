@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class DebugLoggerTest {
+
+    @Rule public final TemporaryFolder logDir = new TemporaryFolder();
+
+    @Test
+    public void writesMessagesOfAllThreadsOnFlush() throws Exception {
+        Path logFile = logDir.getRoot().toPath().resolve("logs/debug.log");
+        DebugLogger.setLogFile(logFile);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(
+                    new Thread(
+                            () -> {
+                                for (int i = 0; i < 250; i++) {
+                                    DebugLogger.info("thread " + thread + " message " + i);
+                                }
+                            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        DebugLogger.flush();
+
+        List<String> lines = Files.readAllLines(logFile, UTF_8);
+        assertEquals(1000, lines.size());
+        assertTrue(lines.contains("thread 3 message 249"));
+
+        // the file is reopened in append mode after a flush
+        DebugLogger.info("after flush");
+        DebugLogger.flush();
+        assertEquals("after flush", Files.readAllLines(logFile, UTF_8).get(1000));
+    }
+
+    @Test
+    public void restoresTheDefaultLogFileOnReset() throws Exception {
+        Path defaultFile = logDir.getRoot().toPath().resolve("default.log");
+        Path buildFile = logDir.getRoot().toPath().resolve("build.log");
+        System.setProperty("swaggerhub.debug.logFile", defaultFile.toString());
+        try {
+            DebugLogger.setLogFile(buildFile);
+            DebugLogger.flush();
+            DebugLogger.resetLogFile();
+
+            DebugLogger.info("next build");
+            DebugLogger.flush();
+
+            assertEquals(List.of("next build"), Files.readAllLines(defaultFile, UTF_8));
+            assertFalse(Files.exists(buildFile));
+        } finally {
+            System.clearProperty("swaggerhub.debug.logFile");
+            DebugLogger.resetLogFile();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class DefinitionCacheTest {
+
+    @Rule public final TemporaryFolder cacheDir = new TemporaryFolder();
+
+    @Test
+    public void sharesConcurrentLoadsOfTheSameKey() throws Exception {
+        DefinitionCache cache = new DefinitionCache(root(), Duration.ZERO, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<DefinitionCache.Entry>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(
+                        executor.submit(
+                                () ->
+                                        cache.get(
+                                                "key",
+                                                stale -> {
+                                                    loads.incrementAndGet();
+                                                    awaitQuietly(release);
+                                                    return store(cache, "key", "definition");
+                                                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<DefinitionCache.Entry> future : futures) {
+                assertEquals("definition", future.get(10, TimeUnit.SECONDS).read());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void revalidatesEntriesOfEarlierBuildsAfterTheTtl() throws IOException {
+        new DefinitionCache(root(), Duration.ZERO, Long.MAX_VALUE)
+                .get("key", stale -> store(null, "key", "definition"));
+
+        DefinitionCache nextBuild = new DefinitionCache(root(), Duration.ZERO, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        DefinitionCache.Entry entry =
+                nextBuild.get(
+                        "key",
+                        stale -> {
+                            loads.incrementAndGet();
+                            assertNotNull(stale);
+                            return stale;
+                        });
+        assertEquals("definition", entry.read());
+        assertEquals("rev", entry.getETag());
+
+        // reused without revalidation for the rest of the build
+        nextBuild.get("key", stale -> fail());
+        assertEquals(1, loads.get());
+
+        DefinitionCache fresh = new DefinitionCache(root(), Duration.ofHours(1), Long.MAX_VALUE);
+        assertEquals("definition", fresh.get("key", stale -> fail()).read());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedDefinitions() throws Exception {
+        DefinitionCache build = cache(25);
+        build.get("old", stale -> store(build, "old", "0123456789"));
+        Thread.sleep(20);
+        build.get("used", stale -> store(build, "used", "abcdefghij"));
+
+        DefinitionCache nextBuild = cache(25);
+        Thread.sleep(20);
+        nextBuild.get("old", stale -> stale);
+        Thread.sleep(20);
+        nextBuild.get("new", stale -> store(nextBuild, "new", "ABCDEFGHIJ"));
+
+        assertNotNull(nextBuild.read("old"));
+        assertNull(nextBuild.read("used"));
+        assertNotNull(nextBuild.read("new"));
+    }
+
+    @Test
+    public void keepsDefinitionsLargerThanTheLimitReadableDuringTheBuild() throws Exception {
+        DefinitionCache build = cache(5);
+        DefinitionCache.Entry big = build.get("big", stale -> store(build, "big", "0123456789"));
+        DefinitionCache.Entry other =
+                build.get("other", stale -> store(build, "other", "abcdefghij"));
+
+        assertTrue(Files.isRegularFile(big.getBlob()));
+        assertEquals("0123456789", big.read());
+        assertEquals("abcdefghij", other.read());
+
+        DefinitionCache nextBuild = cache(5);
+        Thread.sleep(20);
+        nextBuild.get("new", stale -> store(nextBuild, "new", "ABCDEFGHIJ"));
+        assertNull(nextBuild.read("big"));
+        assertNull(nextBuild.read("other"));
+        assertNotNull(nextBuild.read("new"));
+    }
+
+    @Test
+    public void leavesRecentlyUsedDefinitionsToOtherBuilds() throws IOException {
+        new DefinitionCache(root(), Duration.ZERO, 5)
+                .get("big", stale -> store(null, "big", "0123456789"));
+
+        DefinitionCache concurrentBuild = new DefinitionCache(root(), Duration.ZERO, 5);
+        concurrentBuild.get("other", stale -> store(concurrentBuild, "other", "abcdefghij"));
+
+        assertNotNull(concurrentBuild.read("big"));
+    }
+
+    private DefinitionCache cache(final long maxBytes) {
+        return new DefinitionCache(root(), Duration.ZERO, maxBytes, false, Duration.ZERO);
+    }
+
+    private Path root() {
+        return cacheDir.getRoot().toPath();
+    }
+
+    private DefinitionCache.Entry store(
+            final DefinitionCache cache, final String key, final String content)
+            throws IOException {
+        DefinitionCache target =
+                cache != null ? cache : new DefinitionCache(root(), Duration.ZERO, Long.MAX_VALUE);
+        return target.store(key, new ByteArrayInputStream(content.getBytes(UTF_8)), "rev", null);
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DefinitionCache.Entry fail() {
+        throw new AssertionError("unexpected load");
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class DefinitionCanonicalizerTest {
+    @Test
+    public void sortsKeysAndStripsWhitespaceFromJson() throws IOException {
+        String json =
+                "{\n  \"swagger\": \"2.0\",\n  \"info\": {\"version\": \"1.0\", \"title\": \"T\"},\n"
+                        + "  \"x-numbers\": [1.50, -2, 3e2, true, null]\n}\n";
+
+        assertEquals(
+                "{\"info\":{\"title\":\"T\",\"version\":\"1.0\"},\"swagger\":\"2.0\","
+                        + "\"x-numbers\":[1.50,-2,3e2,true,null]}",
+                canonicalize(json, false));
+    }
+
+    @Test
+    public void sortsKeysAndStripsCommentsFromYaml() throws IOException {
+        String yaml =
+                "# the pet store\nopenapi: 3.0.0\ninfo:\n    version: '1.0'   # quoted\n"
+                        + "    title: Pets\n    x-flag: 'true'\npaths:\n    /pets:\n"
+                        + "        get:\n            responses: {}\n";
+
+        assertEquals(
+                "info:\n  title: Pets\n  version: \"1.0\"\n  x-flag: \"true\"\n"
+                        + "openapi: 3.0.0\npaths:\n  /pets:\n    get:\n      responses: {}\n",
+                canonicalize(yaml, true));
+    }
+
+    @Test
+    public void producesTheSameFormForReformattedDefinitions() throws IOException {
+        assertEquals(
+                canonicalize("{\"b\": [1, {\"d\": 1, \"c\": 2}], \"a\": \"x\"}", false),
+                canonicalize(
+                        "{\n\t\"a\" : \"x\",\n\t\"b\" : [ 1, { \"c\" : 2, \"d\" : 1 } ]\n}",
+                        false));
+    }
+
+    private static String canonicalize(final String definition, final boolean yaml)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DefinitionCanonicalizer.canonicalize(
+                new ByteArrayInputStream(definition.getBytes(UTF_8)), yaml, out);
+        return out.toString(UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class DefinitionConverterTest {
+    @Test
+    public void convertsJsonToYaml() throws IOException {
+        String json =
+                "{\"swagger\": \"2.0\", \"info\": {\"title\": \"Pets\", \"version\": \"1.0\"},"
+                        + " \"x-numbers\": [1.10, -2, true, null]}";
+
+        assertEquals(
+                "swagger: \"2.0\"\ninfo:\n  title: Pets\n  version: \"1.0\"\n"
+                        + "x-numbers:\n- 1.10\n- -2\n- true\n- null\n",
+                convert(json, "json", "yaml"));
+    }
+
+    @Test
+    public void convertsYamlToJson() throws IOException {
+        String yaml =
+                "# the pet store\nopenapi: 3.0.0\ninfo:\n  title: Pets\n  version: '1.0'\n"
+                        + "x-limits: [1.10, 3]\n";
+
+        assertEquals(
+                "{\n  \"openapi\" : \"3.0.0\",\n  \"info\" : {\n    \"title\" : \"Pets\",\n"
+                        + "    \"version\" : \"1.0\"\n  },\n  \"x-limits\" : [ 1.10, 3 ]\n}",
+                convert(yaml, "yaml", "json"));
+    }
+
+    @Test
+    public void roundTripKeepsTheDocument() throws IOException {
+        String json = "{\n  \"a\" : [ 1, 2.50, \"3\" ],\n  \"b\" : {\n    \"c\" : false\n  }\n}";
+
+        assertEquals(json, convert(convert(json, "json", "yml"), "yml", "json"));
+    }
+
+    @Test
+    public void detectsWhenConversionIsNeeded() {
+        assertTrue(DefinitionConverter.needsConversion("yaml", "json"));
+        assertTrue(DefinitionConverter.needsConversion("JSON", "yml"));
+        assertFalse(DefinitionConverter.needsConversion("yml", "yaml"));
+        assertFalse(DefinitionConverter.needsConversion(null, "yaml"));
+    }
+
+    private static String convert(final String definition, final String from, final String to)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DefinitionConverter.convert(
+                new ByteArrayInputStream(definition.getBytes(UTF_8)), from, out, to);
+        return out.toString(UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class ReferenceBundlerTest {
+    private static final String API = "https://hub.example/apis/acme/pets/1.0.0?resolved=false";
+    private static final String DOMAIN = "https://hub.example/domains/acme/common/1.0.0";
+
+    private final Map<String, String> documents = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ReferenceCache cache = new ReferenceCache();
+
+    @Test
+    public void importsSharedComponentsOnce() throws IOException {
+        documents.put(
+                DOMAIN,
+                "components:\n  schemas:\n    Pet:\n      type: object\n      properties:\n"
+                        + "        tag: {$ref: '#/components/schemas/Tag'}\n"
+                        + "        weight: {type: number, maximum: 1.10}\n"
+                        + "    Tag: {type: string}\n");
+
+        String bundled =
+                bundle(
+                        "{\"openapi\": \"3.0.0\", \"paths\": {\"/pets\": {\"get\": {\"responses\":"
+                                + " {\"200\": {\"content\": {\"application/json\": {\"schema\":"
+                                + " {\"$ref\": \"../../../domains/acme/common/1.0.0#/components/schemas/Pet\"}}}},"
+                                + " \"201\": {\"$ref\": \"#/components/responses/Created\"}}}}},"
+                                + " \"components\": {\"responses\": {\"Created\": {\"description\":"
+                                + " \"ok\", \"content\": {\"application/json\": {\"schema\": {\"$ref\":"
+                                + " \""
+                                + DOMAIN
+                                + "#/components/schemas/Pet\"}}}}}}}");
+
+        assertEquals(
+                "{\"openapi\":\"3.0.0\",\"paths\":{\"/pets\":{\"get\":{\"responses\":{\"200\":"
+                        + "{\"content\":{\"application/json\":{\"schema\":{\"$ref\":"
+                        + "\"#/components/schemas/Pet\"}}}},\"201\":{\"$ref\":"
+                        + "\"#/components/responses/Created\"}}}}},\"components\":{\"responses\":"
+                        + "{\"Created\":{\"description\":\"ok\",\"content\":{\"application/json\":"
+                        + "{\"schema\":{\"$ref\":\"#/components/schemas/Pet\"}}}}},\"schemas\":"
+                        + "{\"Pet\":{\"type\":\"object\",\"properties\":{\"tag\":{\"$ref\":"
+                        + "\"#/components/schemas/Tag\"},\"weight\":{\"type\":\"number\","
+                        + "\"maximum\":1.10}}},\"Tag\":{\"type\":\"string\"}}}}",
+                bundled);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void renamesComponentsClashingWithLocalOnes() throws IOException {
+        documents.put(DOMAIN, "{\"definitions\": {\"Error\": {\"type\": \"string\"}}}");
+
+        String bundled =
+                bundle(
+                        "{\"definitions\": {\"Error\": {\"type\": \"object\"}, \"Result\":"
+                                + " {\"$ref\": \""
+                                + DOMAIN
+                                + "#/definitions/Error\"}}}");
+
+        assertEquals(
+                "{\"definitions\":{\"Error\":{\"type\":\"object\"},\"Result\":{\"$ref\":"
+                        + "\"#/definitions/Error_2\"},\"Error_2\":{\"type\":\"string\"}}}",
+                bundled);
+    }
+
+    @Test
+    public void inlinesWholeDocumentsAndReusesCachedOnes() throws IOException {
+        documents.put(DOMAIN, "{\"type\": \"string\"}");
+
+        assertEquals(
+                "{\"a\":{\"type\":\"string\"},\"b\":{\"type\":\"string\"}}",
+                bundle(
+                        "{\"a\": {\"$ref\": \""
+                                + DOMAIN
+                                + "\"}, \"b\": {\"$ref\": \""
+                                + DOMAIN
+                                + "\"}}"));
+        assertEquals(
+                "{\"c\":{\"type\":\"string\"}}", bundle("{\"c\": {\"$ref\": \"" + DOMAIN + "\"}}"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void failsOnMissingTarget() {
+        documents.put(DOMAIN, "{\"definitions\": {}}");
+
+        IOException e =
+                assertThrows(
+                        IOException.class,
+                        () -> bundle("{\"$ref\": \"" + DOMAIN + "#/definitions/Missing\"}"));
+        assertEquals("$ref target " + DOMAIN + "#/definitions/Missing not found", e.getMessage());
+    }
+
+    private String bundle(final String definition) throws IOException {
+        JsonNode root = ReferenceBundler.read(new ByteArrayInputStream(definition.getBytes(UTF_8)));
+        ReferenceBundler.bundle((ObjectNode) root, API, cache, this::load);
+        return root.toString();
+    }
+
+    private JsonNode load(final String url) throws IOException {
+        loads.incrementAndGet();
+        String document = documents.get(url);
+        if (document == null) {
+            throw new IOException("Not found: " + url);
+        }
+        return ReferenceBundler.read(new ByteArrayInputStream(document.getBytes(UTF_8)));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class RequestExecutorTest {
+
+    @Test
+    public void usesVirtualThreadsFromJava21() {
+        try (RequestExecutor executor = RequestExecutor.create(4)) {
+            assertEquals(Runtime.version().feature() >= 21, executor.isVirtual());
+        }
+    }
+
+    @Test
+    public void limitsCallsInFlight() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try (RequestExecutor executor = RequestExecutor.create(3)) {
+            for (int i = 0; i < 50; i++) {
+                int value = i;
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    maxRunning.accumulateAndGet(
+                                            running.incrementAndGet(), Math::max);
+                                    Thread.sleep(5);
+                                    running.decrementAndGet();
+                                    return value;
+                                }));
+            }
+            int sum = 0;
+            for (Future<Integer> future : futures) {
+                sum += future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(49 * 50 / 2, sum);
+        }
+        assertTrue(maxRunning.get() <= 3);
+    }
+}
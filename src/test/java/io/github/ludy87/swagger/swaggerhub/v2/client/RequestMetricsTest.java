@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import okhttp3.OkHttpClient;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class RequestMetricsTest {
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder outputDir = new TemporaryFolder();
+
+    private final RequestMetrics metrics = new RequestMetrics();
+
+    private OkHttpClient httpClient;
+
+    @Before
+    public void setup() {
+        httpClient = new OkHttpClient.Builder().eventListenerFactory(metrics).build();
+    }
+
+    @After
+    public void tearDown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    @Test
+    public void labelsGetRequestsByWhatTheyFetch() throws Exception {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub"))
+                        .willReturn(
+                                aResponse()
+                                        .withHeader("Content-Type", "application/json")
+                                        .withBody(
+                                                "{\"offset\": 0, \"totalCount\": 0,"
+                                                        + " \"apis\": []}")));
+        stubFor(
+                WireMock.head(urlPathEqualTo("/apis/swagger-hub/pets/1.0.0"))
+                        .willReturn(aResponse().withHeader("ETag", "\"rev-1\"")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/pets/1.0.0"))
+                        .willReturn(
+                                WireMock.okJson(
+                                        "{\"openapi\": \"3.0.0\", \"components\": {\"schemas\":"
+                                                + " {\"Pet\": {\"$ref\":"
+                                                + " \"../../../domains/swagger-hub/common/1.0.0"
+                                                + "#/components/schemas/Pet\"}}}}")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/domains/swagger-hub/common/1.0.0"))
+                        .willReturn(
+                                WireMock.okJson(
+                                        "{\"components\": {\"schemas\": {\"Pet\":"
+                                                + " {\"type\": \"object\"}}}}")));
+
+        SwaggerHubClient client =
+                SwaggerHubClient.builder()
+                        .host("localhost")
+                        .port(wireMockRule.port())
+                        .protocol("http")
+                        .client(httpClient)
+                        .build();
+        SwaggerHubRequest request =
+                SwaggerHubRequest.builder()
+                        .owner("swagger-hub")
+                        .api("pets")
+                        .version("1.0.0")
+                        .format("json")
+                        .build();
+        client.listApis("swagger-hub", 10);
+        client.fetchRevision(request);
+        client.downloadDefinition(
+                request.toBuilder().bundle(true).build(),
+                outputDir.getRoot().toPath().resolve("pets.json"));
+
+        List<String> operations =
+                metrics.getCalls().stream()
+                        .map(RequestMetrics.CallRecord::getOperation)
+                        .sorted()
+                        .collect(Collectors.toList());
+        assertEquals(List.of("download", "listing", "reference", "revision"), operations);
+    }
+}
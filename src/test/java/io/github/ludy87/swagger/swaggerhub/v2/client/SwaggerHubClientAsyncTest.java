@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.gradle.api.GradleException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import okhttp3.OkHttpClient;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubClientAsyncTest {
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private OkHttpClient httpClient;
+    private SwaggerHubClient swaggerHubClient;
+
+    @Before
+    public void setup() {
+        httpClient = new OkHttpClient();
+        swaggerHubClient =
+                SwaggerHubClient.builder()
+                        .host("localhost")
+                        .port(wireMockRule.port())
+                        .protocol("http")
+                        .token("token")
+                        .client(httpClient)
+                        .build();
+    }
+
+    @After
+    public void tearDown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    @Test
+    public void downloadsDefinitionAsynchronously() throws Exception {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+
+        String definition =
+                swaggerHubClient.getDefinitionAsync(request()).get(10, TimeUnit.SECONDS);
+
+        assertThat(definition, containsString("This is a simple API"));
+    }
+
+    @Test
+    public void servesAsynchronousDownloadsFromTheDefinitionCache() throws Exception {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+        Path root = cacheDir.getRoot().toPath();
+        SwaggerHubClient online =
+                cachingClient(new DefinitionCache(root, Duration.ZERO, 1024L * 1024L));
+        online.getDefinitionAsync(request()).get(10, TimeUnit.SECONDS);
+
+        SwaggerHubClient offline =
+                cachingClient(new DefinitionCache(root, Duration.ZERO, 1024L * 1024L, true));
+        String definition = offline.getDefinitionAsync(request()).get(10, TimeUnit.SECONDS);
+
+        assertThat(definition, containsString("This is a simple API"));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+    }
+
+    @Test
+    public void rejectsBundledAsynchronousDownloads() throws Exception {
+        CompletableFuture<String> future =
+                swaggerHubClient.getDefinitionAsync(request().toBuilder().bundle(true).build());
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("bundled download should be rejected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(GradleException.class));
+            assertThat(e.getCause().getMessage(), containsString("bundled"));
+        }
+        WireMock.verify(0, getRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void completesExceptionallyOnRejectedUpload() throws Exception {
+        stubFor(WireMock.post(anyUrl()).willReturn(aResponse().withStatus(400).withBody("bad")));
+
+        CompletableFuture<Void> future =
+                swaggerHubClient.saveDefinitionAsync(
+                        SwaggerHubRequest.builder()
+                                .owner("swagger-hub")
+                                .api("test-api")
+                                .version("1.0.0")
+                                .swagger("{}")
+                                .build());
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("upload should fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(GradleException.class));
+            assertThat(e.getCause().getMessage(), containsString("bad"));
+        }
+    }
+
+    @Test
+    public void setsDefaultVersionAsynchronously() throws Exception {
+        stubFor(WireMock.put(anyUrl()).willReturn(WireMock.noContent()));
+
+        swaggerHubClient.setDefaultVersionAsync(request()).get(10, TimeUnit.SECONDS);
+
+        WireMock.verify(
+                putRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/settings/default"))
+                        .withRequestBody(equalTo("{\"version\": \"1.0.0\"}")));
+    }
+
+    @Test
+    public void cancellingTheFutureCancelsTheCall() throws Exception {
+        stubFor(WireMock.get(anyUrl()).willReturn(WireMock.ok("late").withFixedDelay(10_000)));
+
+        CompletableFuture<String> future = swaggerHubClient.getDefinitionAsync(request());
+        waitFor(() -> httpClient.dispatcher().runningCallsCount() == 1);
+        assertTrue(future.cancel(true));
+
+        waitFor(() -> httpClient.dispatcher().runningCallsCount() == 0);
+        assertEquals(0, httpClient.dispatcher().runningCallsCount());
+    }
+
+    private SwaggerHubClient cachingClient(final DefinitionCache cache) {
+        return SwaggerHubClient.builder()
+                .host("localhost")
+                .port(wireMockRule.port())
+                .protocol("http")
+                .token("token")
+                .client(httpClient)
+                .cache(cache)
+                .build();
+    }
+
+    private static SwaggerHubRequest request() {
+        return SwaggerHubRequest.builder()
+                .owner("swagger-hub")
+                .api("test-api")
+                .version("1.0.0")
+                .build();
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
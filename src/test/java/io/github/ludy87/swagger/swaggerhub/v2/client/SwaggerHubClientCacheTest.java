@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.gradle.api.GradleException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import okhttp3.OkHttpClient;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubClientCacheTest {
+    private static final String PATH = "/apis/swagger-hub/private-api/1.0.0";
+
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private OkHttpClient httpClient;
+    private DefinitionCache cache;
+
+    @Before
+    public void setup() {
+        httpClient = new OkHttpClient();
+        cache =
+                new DefinitionCache(
+                        cacheDir.getRoot().toPath(), Duration.ofHours(1), 1024L * 1024L);
+    }
+
+    @After
+    public void tearDown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    @Test
+    public void doesNotServeDefinitionsCachedWithAnotherToken() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo(PATH))
+                        .withHeader("Authorization", WireMock.equalTo("secret"))
+                        .willReturn(WireMock.ok("private")));
+        stubFor(
+                WireMock.get(urlPathEqualTo(PATH))
+                        .withHeader("Authorization", WireMock.absent())
+                        .willReturn(WireMock.unauthorized().withBody("denied")));
+
+        assertEquals("private", client("secret").getDefinition(request()));
+        assertEquals("private", client("secret").getDefinition(request()));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo(PATH)));
+
+        GradleException e =
+                assertThrows(GradleException.class, () -> client(null).getDefinition(request()));
+        assertEquals("Failed to download API definition: denied", e.getMessage());
+        WireMock.verify(2, getRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    private SwaggerHubClient client(final String token) {
+        return SwaggerHubClient.builder()
+                .host("localhost")
+                .port(wireMockRule.port())
+                .protocol("http")
+                .token(token)
+                .client(httpClient)
+                .cache(cache)
+                .build();
+    }
+
+    private static SwaggerHubRequest request() {
+        return SwaggerHubRequest.builder()
+                .owner("swagger-hub")
+                .api("private-api")
+                .version("1.0.0")
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubClientRetryTest {
+    private static final String PATH = "/apis/swagger-hub/test-api/1.0.0";
+
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Test
+    public void defaultClientRetriesTransientFailures() {
+        stubFor(
+                WireMock.get(urlPathEqualTo(PATH))
+                        .inScenario("retry")
+                        .whenScenarioStateIs(Scenario.STARTED)
+                        .willReturn(WireMock.serviceUnavailable().withHeader("Retry-After", "0"))
+                        .willSetStateTo("recovered"));
+        stubFor(
+                WireMock.get(urlPathEqualTo(PATH))
+                        .inScenario("retry")
+                        .whenScenarioStateIs("recovered")
+                        .willReturn(WireMock.ok("recovered")));
+
+        SwaggerHubClient client =
+                SwaggerHubClient.createOnPremise(
+                        "localhost", wireMockRule.port(), "http", null, false, null);
+
+        assertEquals(
+                "recovered",
+                client.getDefinition(
+                        SwaggerHubRequest.builder()
+                                .owner("swagger-hub")
+                                .api("test-api")
+                                .version("1.0.0")
+                                .build()));
+        WireMock.verify(2, getRequestedFor(urlPathEqualTo(PATH)));
+    }
+}
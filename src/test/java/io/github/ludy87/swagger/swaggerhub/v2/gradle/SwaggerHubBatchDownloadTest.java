@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020 SmartBear Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ########################################################################
+ *
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.gradle;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static junit.framework.TestCase.assertTrue;
+import static org.gradle.testkit.runner.TaskOutcome.FAILED;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import io.github.ludy87.swagger.swaggerhub.v2.client.Hashing;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubBatchDownloadTest {
+    private static final String BATCH_DOWNLOAD_TASK = "swaggerhubBatchDownload";
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder testProjectDir = new TemporaryFolder();
+    private File buildFile;
+
+    @Before
+    public void setup() throws IOException {
+        buildFile = testProjectDir.newFile("build.gradle");
+    }
+
+    @Test
+    public void downloadsAllDefinitions() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/other-api/2.0.0"))
+                        .willReturn(WireMock.ok("other-api")));
+
+        Path first = outputPath("first/testAPI.json");
+        Path second = outputPath("second/otherAPI.json");
+        writeBuildFile(
+                "    maxConcurrentRequests 2\n"
+                        + definition("test-api", "1.0.0", first)
+                        + definition("other-api", "2.0.0", second));
+
+        BuildResult result = executeTask().build();
+
+        assertEquals(SUCCESS, result.task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+        assertTrue(Files.exists(first));
+        assertThat(
+                FileUtils.readFileToString(first.toFile(), UTF_8),
+                containsString("This is a simple API"));
+        assertEquals("other-api", FileUtils.readFileToString(second.toFile(), UTF_8));
+        WireMock.verify(
+                getRequestedFor(urlEqualTo("/apis/swagger-hub/other-api/2.0.0?resolved=false")));
+    }
+
+    @Test
+    public void reportsEveryFailureAtTheEnd() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(WireMock.ok("test-api")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/missing-api/1.0.0"))
+                        .willReturn(WireMock.notFound()));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/broken-api/1.0.0"))
+                        .willReturn(WireMock.serverError()));
+
+        Path ok = outputPath("ok.json");
+        writeBuildFile(
+                definition("test-api", "1.0.0", ok)
+                        + definition("missing-api", "1.0.0", outputPath("missing.json"))
+                        + definition("broken-api", "1.0.0", outputPath("broken.json")));
+
+        BuildResult result = executeTask().buildAndFail();
+
+        assertEquals(FAILED, result.task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+        assertTrue(Files.exists(ok));
+        assertThat(result.getOutput(), containsString("Failed to download 2 of 3"));
+        assertThat(result.getOutput(), containsString("swagger-hub/missing-api/1.0.0"));
+        assertThat(result.getOutput(), containsString("swagger-hub/broken-api/1.0.0"));
+    }
+
+    @Test
+    public void throttlesRequestsToTheRateLimit() throws IOException {
+        stubFor(WireMock.get(WireMock.anyUrl()).willReturn(WireMock.ok("api")));
+
+        writeBuildFile(
+                "    maxConcurrentRequests 4\n"
+                        + definition("api-1", "1.0.0", outputPath("api-1.json"))
+                        + definition("api-2", "1.0.0", outputPath("api-2.json"))
+                        + definition("api-3", "1.0.0", outputPath("api-3.json"))
+                        + definition("api-4", "1.0.0", outputPath("api-4.json")));
+        Files.write(
+                testProjectDir.newFile("gradle.properties").toPath(),
+                ("swaggerhub.http.rateLimit.permitsPerSecond=100\n"
+                                + "swaggerhub.http.rateLimit.localhost.permitsPerSecond=4\n"
+                                + "swaggerhub.http.rateLimit.localhost.burst=1\n")
+                        .getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().build().task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+
+        // one permit right away, the other three are refilled at 4 per second
+        List<Long> times =
+                WireMock.findAll(getRequestedFor(WireMock.anyUrl())).stream()
+                        .map(LoggedRequest::getLoggedDate)
+                        .map(Date::getTime)
+                        .sorted()
+                        .collect(Collectors.toList());
+        assertEquals(4, times.size());
+        assertTrue(times.get(3) - times.get(0) >= 700);
+    }
+
+    @Test
+    public void appliesTheLimitOfTheToken() throws IOException {
+        stubFor(WireMock.get(WireMock.anyUrl()).willReturn(WireMock.ok("api")));
+
+        writeBuildFile(
+                "    maxConcurrentRequests 4\n"
+                        + "    token 'secret'\n"
+                        + definition("api-1", "1.0.0", outputPath("api-1.json"))
+                        + definition("api-2", "1.0.0", outputPath("api-2.json"))
+                        + definition("api-3", "1.0.0", outputPath("api-3.json"))
+                        + definition("api-4", "1.0.0", outputPath("api-4.json")));
+        Files.write(
+                testProjectDir.newFile("gradle.properties").toPath(),
+                ("swaggerhub.http.rateLimit.localhost.permitsPerSecond=100\n"
+                                + "swaggerhub.http.rateLimit.token."
+                                + Hashing.sha256("secret")
+                                + ".permitsPerSecond=4\n"
+                                + "swaggerhub.http.rateLimit.token."
+                                + Hashing.sha256("secret")
+                                + ".burst=1\n")
+                        .getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().build().task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+
+        List<Long> times =
+                WireMock.findAll(getRequestedFor(WireMock.anyUrl())).stream()
+                        .map(LoggedRequest::getLoggedDate)
+                        .map(Date::getTime)
+                        .sorted()
+                        .collect(Collectors.toList());
+        assertEquals(4, times.size());
+        assertTrue(times.get(3) - times.get(0) >= 700);
+    }
+
+    @Test
+    public void servesRepeatedDefinitionsFromTheDefinitionCache() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+
+        Path first = outputPath("first.json");
+        Path second = outputPath("second.json");
+        writeBuildFile(
+                definition("test-api", "1.0.0", first) + definition("test-api", "1.0.0", second));
+        Files.write(
+                testProjectDir.newFile("gradle.properties").toPath(),
+                ("swaggerhub.cache.enabled=true\n"
+                                + "swaggerhub.cache.dir=swaggerhub-cache\n"
+                                + "swaggerhub.cache.ttlSeconds=3600\n")
+                        .getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().build().task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+        assertEquals(
+                FileUtils.readFileToString(first.toFile(), UTF_8),
+                FileUtils.readFileToString(second.toFile(), UTF_8));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+
+        // fresh within the TTL, so the next build does not ask SwaggerHub at all
+        Files.delete(first);
+        assertEquals(SUCCESS, executeTask().build().task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+        assertThat(
+                FileUtils.readFileToString(first.toFile(), UTF_8),
+                containsString("This is a simple API"));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+    }
+
+    @Test
+    public void bundlesSharedDomainWithOneFetch() throws IOException {
+        String domain =
+                "http://localhost:" + wireMockRule.port() + "/domains/swagger-hub/common/1.0.0";
+        for (String api : new String[] {"pets-api", "users-api"}) {
+            stubFor(
+                    WireMock.get(urlPathEqualTo("/apis/swagger-hub/" + api + "/1.0.0"))
+                            .willReturn(
+                                    WireMock.okJson(
+                                            "{\"openapi\": \"3.0.0\", \"paths\": {\"/"
+                                                    + api
+                                                    + "\": {\"get\": {\"responses\": {\"500\":"
+                                                    + " {\"$ref\": \""
+                                                    + domain
+                                                    + "#/components/responses/Error\"}}}}}}")));
+        }
+        stubFor(
+                WireMock.get(urlPathEqualTo("/domains/swagger-hub/common/1.0.0"))
+                        .willReturn(
+                                WireMock.okJson(
+                                        "{\"components\": {\"responses\": {\"Error\":"
+                                                + " {\"description\": \"failed\", \"content\":"
+                                                + " {\"application/json\": {\"schema\":"
+                                                + " {\"$ref\": \"#/components/schemas/Problem\"}}}}},"
+                                                + " \"schemas\": {\"Problem\": {\"type\":"
+                                                + " \"object\"}}}}")));
+
+        Path pets = outputPath("pets.json");
+        Path users = outputPath("users.json");
+        writeBuildFile(
+                "    bundle true\n"
+                        + definition("pets-api", "1.0.0", pets)
+                        + definition("users-api", "1.0.0", users));
+
+        assertEquals(SUCCESS, executeTask().build().task(":" + BATCH_DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/domains/swagger-hub/common/1.0.0")));
+        WireMock.verify(
+                getRequestedFor(urlEqualTo("/apis/swagger-hub/pets-api/1.0.0?resolved=false")));
+        String bundled = FileUtils.readFileToString(pets.toFile(), UTF_8);
+        assertThat(bundled, containsString("\"$ref\" : \"#/components/responses/Error\""));
+        assertThat(bundled, containsString("\"$ref\" : \"#/components/schemas/Problem\""));
+        assertThat(bundled, containsString("\"description\" : \"failed\""));
+        assertThat(
+                FileUtils.readFileToString(users.toFile(), UTF_8),
+                containsString("\"$ref\" : \"#/components/responses/Error\""));
+    }
+
+    private Path outputPath(final String name) {
+        return Paths.get(testProjectDir.getRoot().toString(), name);
+    }
+
+    private String definition(final String api, final String version, final Path outputFile) {
+        return "    definition {\n"
+                + "        owner 'swagger-hub'\n"
+                + "        api '"
+                + api
+                + "'\n"
+                + "        version '"
+                + version
+                + "'\n"
+                + "        outputFile '"
+                + outputFile.toString().replace("\\", "/")
+                + "'\n"
+                + "    }\n";
+    }
+
+    private void writeBuildFile(final String definitions) throws IOException {
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + BATCH_DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + definitions
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+    }
+
+    private GradleRunner executeTask() {
+        return GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(BATCH_DOWNLOAD_TASK, "--stacktrace", "--configuration-cache");
+    }
+}
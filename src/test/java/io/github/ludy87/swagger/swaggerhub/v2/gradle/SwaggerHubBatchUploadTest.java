@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.gradle;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.gradle.testkit.runner.TaskOutcome.FAILED;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubBatchUploadTest {
+    private static final String BATCH_UPLOAD_TASK = "swaggerhubBatchUpload";
+
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder testProjectDir = new TemporaryFolder();
+    private File buildFile;
+
+    @Before
+    public void setup() throws IOException {
+        buildFile = testProjectDir.newFile("build.gradle");
+        stubFor(WireMock.post(urlPathEqualTo("/apis/swagger-hub/petstore")).willReturn(created()));
+        stubFor(WireMock.post(urlPathEqualTo("/apis/swagger-hub/users")).willReturn(created()));
+    }
+
+    @Test
+    public void uploadsDefinitionsNamedAfterTheirFiles() throws IOException {
+        writeSpec("petstore-1.0.0.json", "{\"swagger\": \"2.0\", \"info\": {}}");
+        writeSpec("users-2.1.0.yaml", "openapi: 3.0.1\ninfo:\n  title: Users\n");
+        writeBuildFile("");
+
+        BuildResult result = executeTask().build();
+
+        assertEquals(SUCCESS, result.task(":" + BATCH_UPLOAD_TASK).getOutcome());
+        WireMock.verify(
+                postRequestedFor(
+                                urlEqualTo(
+                                        "/apis/swagger-hub/petstore?version=1.0.0"
+                                                + "&isPrivate=false&oas=2.0"))
+                        .withHeader("Content-Type", containing("application/json"))
+                        .withHeader("Authorization", equalTo("token")));
+        WireMock.verify(
+                postRequestedFor(
+                                urlEqualTo(
+                                        "/apis/swagger-hub/users?version=2.1.0"
+                                                + "&isPrivate=false&oas=3.0.1"))
+                        .withHeader("Content-Type", containing("application/yaml")));
+        assertThat(result.getOutput(), containsString("petstore-1.0.0.json  petstore"));
+        assertThat(result.getOutput(), containsString("uploaded"));
+    }
+
+    @Test
+    public void namesDefinitionsAfterTheirInfoBlock() throws IOException {
+        writeSpec(
+                "a.yaml",
+                "openapi: 3.0.0\ninfo:\n  version: '4.2.0'\n  title: users\n"
+                        + "  contact:\n    name: Team\npaths: {}\n");
+        writeSpec(
+                "b.json",
+                "{\"openapi\": \"3.0.0\", \"info\": {\"contact\": {\"name\": \"Team\"},"
+                        + " \"title\": \"petstore\", \"version\": \"1.1.0\"}}");
+        writeBuildFile("    naming 'info'\n");
+
+        assertEquals(SUCCESS, executeTask().build().task(":" + BATCH_UPLOAD_TASK).getOutcome());
+        WireMock.verify(
+                postRequestedFor(
+                        urlEqualTo(
+                                "/apis/swagger-hub/users?version=4.2.0&isPrivate=false&oas=3.0.0")));
+        WireMock.verify(
+                postRequestedFor(
+                        urlEqualTo(
+                                "/apis/swagger-hub/petstore?version=1.1.0"
+                                        + "&isPrivate=false&oas=3.0.0")));
+    }
+
+    @Test
+    public void reportsEveryFailureInTheResultTable() throws IOException {
+        stubFor(
+                WireMock.post(urlPathEqualTo("/apis/swagger-hub/users"))
+                        .willReturn(aResponse().withStatus(400).withBody("invalid definition")));
+        writeSpec("petstore-1.0.0.json", "{\"swagger\": \"2.0\"}");
+        writeSpec("users-1.0.0.json", "{\"swagger\": \"2.0\"}");
+        writeBuildFile("    version '9.9.9'\n");
+
+        BuildResult result = executeTask().buildAndFail();
+
+        assertEquals(FAILED, result.task(":" + BATCH_UPLOAD_TASK).getOutcome());
+        WireMock.verify(
+                postRequestedFor(
+                        urlEqualTo(
+                                "/apis/swagger-hub/petstore?version=9.9.9"
+                                        + "&isPrivate=false&oas=2.0")));
+        assertThat(result.getOutput(), containsString("FAILED: "));
+        assertThat(result.getOutput(), containsString("invalid definition"));
+        assertThat(result.getOutput(), containsString("Failed to upload 1 of 2"));
+    }
+
+    private static ResponseDefinitionBuilder created() {
+        return aResponse().withStatus(201);
+    }
+
+    private void writeSpec(final String name, final String content) throws IOException {
+        Path specs = testProjectDir.getRoot().toPath().resolve("specs");
+        Files.createDirectories(specs);
+        Files.write(specs.resolve(name), content.getBytes(UTF_8));
+    }
+
+    private void writeBuildFile(final String settings) throws IOException {
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + BATCH_UPLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    token 'token'\n"
+                        + "    maxConcurrentRequests 2\n"
+                        + "    definitions.from(fileTree('specs'))\n"
+                        + settings
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+    }
+
+    private GradleRunner executeTask() {
+        return GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(BATCH_UPLOAD_TASK, "--stacktrace", "--configuration-cache");
+    }
+}
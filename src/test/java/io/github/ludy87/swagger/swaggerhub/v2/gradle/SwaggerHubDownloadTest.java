@@ -33,23 +33,33 @@ package io.github.ludy87.swagger.swaggerhub.v2.gradle;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.headRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static junit.framework.TestCase.assertTrue;
+import static org.gradle.testkit.runner.TaskOutcome.FROM_CACHE;
 import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.gradle.testkit.runner.BuildResult;
@@ -59,8 +69,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 
 @SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
 public class SwaggerHubDownloadTest {
@@ -202,11 +215,494 @@ public class SwaggerHubDownloadTest {
                 getRequestedFor(urlEqualTo("/v1/apis/swagger-hub/test-api/1.0.0?resolved=false")));
     }
 
-    private BuildResult executeTask() {
+    @Test
+    public void skipsUnchangedDefinitionWithConditionalRequest() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(
+                                aResponse()
+                                        .withHeader("ETag", "\"rev-1\"")
+                                        .withBodyFile("TestAPI.json")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .withHeader("If-None-Match", equalTo("\"rev-1\""))
+                        .atPriority(1)
+                        .willReturn(aResponse().withStatus(304)));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+        assertEquals(UP_TO_DATE, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(
+                1,
+                getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .withHeader("If-None-Match", equalTo("\"rev-1\"")));
+        assertThat(
+                FileUtils.readFileToString(outputFile.toFile(), UTF_8),
+                containsString("This is a simple API"));
+    }
+
+    @Test
+    public void keepsPreviousOutputWhenDownloadFails() throws IOException {
+        stubFor(WireMock.get(anyUrl()).willReturn(WireMock.serverError()));
+        Files.write(outputFile, "previous".getBytes(UTF_8));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+
+        GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(DOWNLOAD_TASK, "--stacktrace", "--configuration-cache")
+                .buildAndFail();
+
+        assertEquals("previous", FileUtils.readFileToString(outputFile.toFile(), UTF_8));
+        try (Stream<Path> files = Files.list(testProjectDir.getRoot().toPath())) {
+            assertTrue(files.noneMatch(path -> path.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    public void usesHttpSettingsFromGradleProperties() throws IOException {
+        stubFor(WireMock.get(anyUrl()).willReturn(WireMock.ok("tuned")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+        Files.write(
+                testProjectDir.newFile("gradle.properties").toPath(),
+                ("swaggerhub.http.maxIdleConnections=2\n"
+                                + "swaggerhub.http.keepAliveSeconds=30\n"
+                                + "swaggerhub.http.maxRequestsPerHost=3\n"
+                                + "swaggerhub.http.readTimeoutSeconds=5\n")
+                        .getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+        assertEquals("tuned", FileUtils.readFileToString(outputFile.toFile(), UTF_8));
+    }
+
+    @Test
+    public void requestsCompressedDefinition() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(
+                getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .withHeader("Accept-Encoding", containing("gzip")));
+        assertThat(
+                FileUtils.readFileToString(outputFile.toFile(), UTF_8),
+                containsString("This is a simple API"));
+    }
+
+    @Test
+    public void convertsDownloadedJsonToYamlFile() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(
+                                WireMock.okJson(
+                                        "{\"swagger\": \"2.0\", \"info\": {\"version\": 1.10}}")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    fileFormat 'yaml'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(
+                getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .withHeader("Accept", containing("application/json")));
+        assertEquals(
+                "swagger: \"2.0\"\ninfo:\n  version: 1.10\n",
+                FileUtils.readFileToString(outputFile.toFile(), UTF_8));
+    }
+
+    @Test
+    public void supportsHttp2WithPriorKnowledge() throws IOException {
+        stubFor(WireMock.get(anyUrl()).willReturn(WireMock.ok("h2c")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+        Files.write(
+                testProjectDir.newFile("gradle.properties").toPath(),
+                "swaggerhub.http.version=h2c\n".getBytes(UTF_8));
+
+        BuildResult result = executeTask("--debug");
+
+        assertEquals(SUCCESS, result.task(":" + DOWNLOAD_TASK).getOutcome());
+        assertThat(result.getOutput(), containsString("via h2_prior_knowledge"));
+        assertEquals("h2c", FileUtils.readFileToString(outputFile.toFile(), UTF_8));
+    }
+
+    @Test
+    public void retriesTransientFailures() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .inScenario("retry")
+                        .whenScenarioStateIs(Scenario.STARTED)
+                        .willSetStateTo("recovered")
+                        .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "0")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .inScenario("retry")
+                        .whenScenarioStateIs("recovered")
+                        .willReturn(WireMock.ok("recovered")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+
+        BuildResult result = executeTask("--info");
+
+        assertEquals(SUCCESS, result.task(":" + DOWNLOAD_TASK).getOutcome());
+        assertThat(result.getOutput(), containsString("answered 429, retrying in 0 ms"));
+        assertEquals("recovered", FileUtils.readFileToString(outputFile.toFile(), UTF_8));
+        WireMock.verify(2, getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+    }
+
+    @Test
+    public void servesUnchangedRevisionFromBuildCache() throws IOException {
+        stubFor(
+                WireMock.head(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withHeader("ETag", "\"rev-1\"")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(
+                                aResponse()
+                                        .withHeader("ETag", "\"rev-1\"")
+                                        .withBodyFile("TestAPI.json")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    cacheable true\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+        Files.write(
+                testProjectDir.newFile("settings.gradle").toPath(),
+                "buildCache { local { directory = new File(rootDir, 'build-cache') } }\n"
+                        .getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+        assertEquals(
+                UP_TO_DATE, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+        Files.delete(outputFile);
+        assertEquals(
+                FROM_CACHE, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(3, headRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+        assertThat(
+                FileUtils.readFileToString(outputFile.toFile(), UTF_8),
+                containsString("This is a simple API"));
+    }
+
+    @Test
+    public void skipsRevisionLookupWhenNotCacheable() throws IOException {
+        stubFor(WireMock.get(anyUrl()).willReturn(WireMock.ok("plain")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+        assertEquals(SUCCESS, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(0, headRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void ignoresCacheableModeForBundledDefinitions() throws IOException {
+        stubFor(
+                WireMock.head(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withHeader("ETag", "\"rev-1\"")));
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(
+                                aResponse()
+                                        .withHeader("ETag", "\"rev-1\"")
+                                        .withBodyFile("TestAPI.json")));
+
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api 'test-api'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    cacheable true\n"
+                        + "    bundle true\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+        Files.write(
+                testProjectDir.newFile("settings.gradle").toPath(),
+                "buildCache { local { directory = new File(rootDir, 'build-cache') } }\n"
+                        .getBytes(UTF_8));
+
+        assertEquals(SUCCESS, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+        Files.delete(outputFile);
+        assertEquals(SUCCESS, executeTask("--build-cache").task(":" + DOWNLOAD_TASK).getOutcome());
+
+        WireMock.verify(0, headRequestedFor(anyUrl()));
+        WireMock.verify(2, getRequestedFor(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0")));
+    }
+
+    @Test
+    public void servesDownloadedDefinitionsOffline() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+        stubFor(
+                WireMock.head(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withHeader("ETag", "\"rev-1\"")));
+        Files.write(
+                testProjectDir.newFile("gradle.properties").toPath(),
+                ("swaggerhub.cache.enabled=true\n" + "swaggerhub.cache.dir=swaggerhub-cache\n")
+                        .getBytes(UTF_8));
+        writeCacheableBuildFile("test-api");
+
+        assertEquals(SUCCESS, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+        Files.delete(outputFile);
+
+        assertEquals(SUCCESS, executeTask("--offline").task(":" + DOWNLOAD_TASK).getOutcome());
+        assertThat(
+                FileUtils.readFileToString(outputFile.toFile(), UTF_8),
+                containsString("This is a simple API"));
+        WireMock.verify(1, getRequestedFor(anyUrl()));
+        WireMock.verify(1, headRequestedFor(anyUrl()));
+
+        writeCacheableBuildFile("other-api");
+        BuildResult result =
+                GradleRunner.create()
+                        .withPluginClasspath()
+                        .withProjectDir(testProjectDir.getRoot())
+                        .withArguments(
+                                DOWNLOAD_TASK, "--stacktrace", "--configuration-cache", "--offline")
+                        .buildAndFail();
+        assertThat(result.getOutput(), containsString("never downloaded before"));
+        WireMock.verify(1, getRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void writesRequestMetricsReport() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withBodyFile("TestAPI.json")));
+        stubFor(
+                WireMock.head(urlPathEqualTo("/apis/swagger-hub/test-api/1.0.0"))
+                        .willReturn(aResponse().withHeader("ETag", "\"rev-1\"")));
+        writeCacheableBuildFile("test-api");
+
+        assertEquals(SUCCESS, executeTask().task(":" + DOWNLOAD_TASK).getOutcome());
+        Path reports = testProjectDir.getRoot().toPath().resolve("build/reports/swaggerhub");
+        assertFalse(Files.exists(reports));
+
+        assertEquals(
+                SUCCESS,
+                executeTask("--rerun-tasks", "-Pswaggerhub.http.metrics=true")
+                        .task(":" + DOWNLOAD_TASK)
+                        .getOutcome());
+
+        JsonNode json =
+                new ObjectMapper().readTree(reports.resolve("swaggerhub-metrics.json").toFile());
+        assertEquals(2, json.get("calls").asInt());
+        assertEquals(1, json.at("/operations/download/count").asInt());
+        assertEquals(1, json.at("/operations/revision/count").asInt());
+        assertTrue(json.at("/operations/download/totalMillis/p95").isNumber());
+        List<String> csv = Files.readAllLines(reports.resolve("swaggerhub-calls.csv"), UTF_8);
+        assertEquals(3, csv.size());
+        assertTrue(csv.get(0).startsWith("operation,method,url,status"));
+        assertTrue(
+                csv.stream().anyMatch(line -> line.startsWith("download,GET,http://localhost:")));
+    }
+
+    private void writeCacheableBuildFile(final String api) throws IOException {
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + DOWNLOAD_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    api '"
+                        + api
+                        + "'\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    version '1.0.0'\n"
+                        + "    cacheable true\n"
+                        + "    outputFile '"
+                        + filePath
+                        + "'\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+    }
+
+    private BuildResult executeTask(final String... extraArguments) {
+        List<String> arguments =
+                new ArrayList<>(
+                        Arrays.asList(DOWNLOAD_TASK, "--stacktrace", "--configuration-cache"));
+        arguments.addAll(Arrays.asList(extraArguments));
         return GradleRunner.create()
                 .withPluginClasspath()
                 .withProjectDir(testProjectDir.getRoot())
-                .withArguments(DOWNLOAD_TASK, "--stacktrace")
+                .withArguments(arguments)
                 .build();
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.gradle;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.gradle.testkit.runner.TaskOutcome.FAILED;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubMirrorTest {
+    private static final String MIRROR_TASK = "swaggerhubMirror";
+    private static final String OWNER = "swagger-hub";
+    private static final String MODIFIED = "2025-01-01T10:00:00Z";
+
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder testProjectDir = new TemporaryFolder();
+    private File buildFile;
+
+    @Before
+    public void setup() throws IOException {
+        buildFile = testProjectDir.newFile("build.gradle");
+        stubListing(
+                "", "0", 0, 3, api("petstore", "1.1.0", MODIFIED), api("users", "2.0.0", MODIFIED));
+        stubListing("", "1", 2, 3, api("orders", "1.0.0", MODIFIED));
+        stubListing(
+                "/petstore",
+                "0",
+                0,
+                2,
+                api("petstore", "1.0.0", MODIFIED),
+                api("petstore", "1.1.0", MODIFIED));
+        stubListing("/users", "0", 0, 1, api("users", "2.0.0", MODIFIED));
+        stubListing("/orders", "0", 0, 1, api("orders", "1.0.0", MODIFIED));
+        stubDefinition("petstore", "1.0.0");
+        stubDefinition("petstore", "1.1.0");
+        stubDefinition("users", "2.0.0");
+        stubDefinition("orders", "1.0.0");
+        writeBuildFile();
+    }
+
+    @Test
+    public void mirrorsAllVersionsOfAnOwnerAcrossListingPages() throws IOException {
+        BuildResult result = executeTask().build();
+
+        assertEquals(SUCCESS, result.task(":" + MIRROR_TASK).getOutcome());
+        assertThat(result.getOutput(), containsString("Mirrored 4 versions of 3 APIs"));
+        assertEquals(
+                "{\"api\": \"petstore/1.1.0\"}", Files.readString(mirrored("petstore", "1.1.0")));
+        assertTrue(Files.isRegularFile(mirrored("orders", "1.0.0")));
+        WireMock.verify(
+                getRequestedFor(urlPathEqualTo("/apis/" + OWNER))
+                        .withQueryParam("page", equalTo("1"))
+                        .withQueryParam("limit", equalTo("2")));
+        String index = Files.readString(mirror().resolve("index.properties"));
+        assertThat(index, containsString("users/2.0.0.modified=" + MODIFIED.replace(":", "\\:")));
+        assertThat(index, containsString("users/2.0.0.etag=\"users-2.0.0"));
+    }
+
+    @Test
+    public void downloadsOnlyMissingAndModifiedVersions() throws IOException {
+        executeTask().build();
+        wireMockRule.resetRequests();
+
+        stubListing(
+                "/petstore",
+                "0",
+                0,
+                2,
+                api("petstore", "1.0.0", MODIFIED),
+                api("petstore", "1.1.0", "2025-02-01T10:00:00Z"));
+        Files.delete(mirrored("users", "2.0.0"));
+        BuildResult result = executeTask().build();
+
+        assertThat(result.getOutput(), containsString("2 downloaded, 2 unchanged"));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo(definitionPath("petstore", "1.1.0"))));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo(definitionPath("users", "2.0.0"))));
+        WireMock.verify(0, getRequestedFor(urlPathEqualTo(definitionPath("petstore", "1.0.0"))));
+        WireMock.verify(0, getRequestedFor(urlPathEqualTo(definitionPath("orders", "1.0.0"))));
+    }
+
+    @Test
+    public void resumesAfterAFailedRun() throws IOException {
+        stubFor(
+                WireMock.get(urlPathEqualTo(definitionPath("orders", "1.0.0")))
+                        .willReturn(aResponse().withStatus(404).withBody("unknown version")));
+
+        BuildResult failed = executeTask().buildAndFail();
+
+        assertEquals(FAILED, failed.task(":" + MIRROR_TASK).getOutcome());
+        assertThat(failed.getOutput(), containsString("orders/1.0.0: "));
+        wireMockRule.resetRequests();
+        stubDefinition("orders", "1.0.0");
+
+        assertThat(executeTask().build().getOutput(), containsString("1 downloaded, 3 unchanged"));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo(definitionPath("orders", "1.0.0"))));
+        WireMock.verify(0, getRequestedFor(urlPathEqualTo(definitionPath("petstore", "1.0.0"))));
+    }
+
+    private String api(final String api, final String version, final String modified) {
+        return "{\"name\": \""
+                + api
+                + " API\", \"description\": \"\", \"properties\": ["
+                + "{\"type\": \"Swagger\", \"url\": \"http://localhost:"
+                + wireMockRule.port()
+                + definitionPath(api, version)
+                + "\"}, {\"type\": \"X-Version\", \"value\": \""
+                + version
+                + "\"}, {\"type\": \"X-Modified\", \"value\": \""
+                + modified
+                + "\"}, {\"type\": \"X-Published\", \"value\": \"true\"}]}";
+    }
+
+    private static void stubListing(
+            final String api,
+            final String page,
+            final int offset,
+            final int totalCount,
+            final String... entries) {
+        stubFor(
+                WireMock.get(urlPathEqualTo("/apis/" + OWNER + api))
+                        .withQueryParam("page", equalTo(page))
+                        .willReturn(
+                                aResponse()
+                                        .withHeader("Content-Type", "application/json")
+                                        .withBody(
+                                                "{\"name\": \""
+                                                        + OWNER
+                                                        + "\", \"offset\": "
+                                                        + offset
+                                                        + ", \"totalCount\": "
+                                                        + totalCount
+                                                        + ", \"apis\": ["
+                                                        + String.join(", ", entries)
+                                                        + "]}")));
+    }
+
+    private static void stubDefinition(final String api, final String version) {
+        stubFor(
+                WireMock.get(urlPathEqualTo(definitionPath(api, version)))
+                        .willReturn(
+                                aResponse()
+                                        .withHeader("ETag", "\"" + api + "-" + version + "\"")
+                                        .withBody("{\"api\": \"" + api + "/" + version + "\"}")));
+    }
+
+    private static String definitionPath(final String api, final String version) {
+        return "/apis/" + OWNER + "/" + api + "/" + version;
+    }
+
+    private Path mirror() {
+        return testProjectDir.getRoot().toPath().resolve("mirror").resolve(OWNER);
+    }
+
+    private Path mirrored(final String api, final String version) {
+        return mirror().resolve(api).resolve(version + ".json");
+    }
+
+    private void writeBuildFile() throws IOException {
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + MIRROR_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    owner '"
+                        + OWNER
+                        + "'\n"
+                        + "    outputDir 'mirror'\n"
+                        + "    pageSize 2\n"
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+    }
+
+    private GradleRunner executeTask() {
+        return GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(MIRROR_TASK, "--stacktrace", "--configuration-cache");
+    }
+}
@@ -89,7 +89,8 @@ public class SwaggerHubSetDefaultVersionTest {
                 GradleRunner.create()
                         .withPluginClasspath()
                         .withProjectDir(testProjectDir.getRoot())
-                        .withArguments(SETDEFAULTVERSION_TASK, "--stacktrace")
+                        .withArguments(
+                                SETDEFAULTVERSION_TASK, "--stacktrace", "--configuration-cache")
                         .build();
 
         return result.task(":" + SETDEFAULTVERSION_TASK).getOutcome();
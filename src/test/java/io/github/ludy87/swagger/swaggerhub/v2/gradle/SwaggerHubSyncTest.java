@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.gradle;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SwaggerHubSyncTest {
+    private static final String SYNC_TASK = "swaggerhubSync";
+
+    @Rule public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule public final TemporaryFolder testProjectDir = new TemporaryFolder();
+    private File buildFile;
+
+    @Before
+    public void setup() throws IOException {
+        buildFile = testProjectDir.newFile("build.gradle");
+        stubFor(WireMock.any(anyUrl()).willReturn(aResponse().withStatus(201)));
+    }
+
+    @Test
+    public void uploadsOnlyChangedDefinitions() throws IOException {
+        writeSpec("petstore-1.0.0.json", "{\"swagger\": \"2.0\"}");
+        writeSpec("users/users-2.1.0.yaml", "openapi: 3.0.1\n");
+        writeBuildFile("");
+
+        assertEquals(SUCCESS, executeTask().build().task(":" + SYNC_TASK).getOutcome());
+        WireMock.verify(1, postRequestedFor(urlPathEqualTo("/apis/swagger-hub/petstore")));
+        WireMock.verify(1, postRequestedFor(urlPathEqualTo("/apis/swagger-hub/users")));
+        wireMockRule.resetRequests();
+
+        writeSpec("petstore-1.0.0.json", "{\"swagger\": \"2.0\", \"paths\": {}}");
+        // rewritten with the same content, so only the timestamp changes
+        writeSpec("users/users-2.1.0.yaml", "openapi: 3.0.1\n");
+        BuildResult result = executeTask().build();
+
+        assertEquals(SUCCESS, result.task(":" + SYNC_TASK).getOutcome());
+        WireMock.verify(1, anyRequestedFor(anyUrl()));
+        WireMock.verify(
+                postRequestedFor(
+                        urlEqualTo(
+                                "/apis/swagger-hub/petstore?version=1.0.0"
+                                        + "&isPrivate=false&oas=2.0")));
+        assertThat(result.getOutput(), containsString("petstore-1.0.0.json  petstore"));
+        wireMockRule.resetRequests();
+
+        assertEquals(UP_TO_DATE, executeTask().build().task(":" + SYNC_TASK).getOutcome());
+        WireMock.verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void skipsLineEndingAndTrailingWhitespaceChanges() throws IOException {
+        writeSpec("users-2.1.0.yaml", "openapi: 3.0.1\ninfo:\n  title: Users\n");
+        writeBuildFile("");
+        executeTask().build();
+        wireMockRule.resetRequests();
+
+        writeSpec("users-2.1.0.yaml", "openapi: 3.0.1\r\ninfo:\r\n  title: Users\r\n\r\n");
+        BuildResult result = executeTask().build();
+
+        assertEquals(SUCCESS, result.task(":" + SYNC_TASK).getOutcome());
+        WireMock.verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    public void deletesVersionsOfRemovedDefinitions() throws IOException {
+        writeSpec("petstore-1.0.0.json", "{\"swagger\": \"2.0\"}");
+        writeSpec("users-2.1.0.json", "{\"swagger\": \"2.0\"}");
+        writeBuildFile("    removedDefinitions 'delete'\n");
+        executeTask().build();
+        wireMockRule.resetRequests();
+
+        Files.delete(specs().resolve("users-2.1.0.json"));
+        BuildResult result = executeTask().build();
+
+        assertEquals(SUCCESS, result.task(":" + SYNC_TASK).getOutcome());
+        WireMock.verify(1, anyRequestedFor(anyUrl()));
+        WireMock.verify(deleteRequestedFor(urlEqualTo("/apis/swagger-hub/users/2.1.0")));
+        assertThat(result.getOutput(), containsString("deleted"));
+    }
+
+    @Test
+    public void unpublishesRemovedVersionsUnlessAnotherFileProvidesThem() throws IOException {
+        writeSpec("petstore-1.0.0.json", "{\"swagger\": \"2.0\"}");
+        writeSpec("users-2.1.0.json", "{\"swagger\": \"2.0\"}");
+        writeBuildFile("    removedDefinitions 'unpublish'\n");
+        executeTask().build();
+        wireMockRule.resetRequests();
+
+        Files.delete(specs().resolve("users-2.1.0.json"));
+        writeSpec("v1/petstore-1.0.0.json", "{\"swagger\": \"2.0\"}");
+        Files.delete(specs().resolve("petstore-1.0.0.json"));
+        executeTask().build();
+
+        WireMock.verify(2, anyRequestedFor(anyUrl()));
+        WireMock.verify(
+                putRequestedFor(urlEqualTo("/apis/swagger-hub/users/2.1.0/settings/lifecycle"))
+                        .withRequestBody(equalToJson("{\"published\": false}")));
+        WireMock.verify(postRequestedFor(urlPathEqualTo("/apis/swagger-hub/petstore")));
+    }
+
+    private Path specs() {
+        return testProjectDir.getRoot().toPath().resolve("specs");
+    }
+
+    private void writeSpec(final String name, final String content) throws IOException {
+        Path spec = specs().resolve(name);
+        Files.createDirectories(spec.getParent());
+        Files.write(spec, content.getBytes(UTF_8));
+    }
+
+    private void writeBuildFile(final String settings) throws IOException {
+        String buildFileContent =
+                "plugins { id 'io.github.ludy87.swagger.swaggerhub.v2' }\n"
+                        + SYNC_TASK
+                        + " {\n"
+                        + "    protocol 'http'\n"
+                        + "    host 'localhost'\n"
+                        + "    port "
+                        + wireMockRule.port()
+                        + "\n"
+                        + "    owner 'swagger-hub'\n"
+                        + "    token 'token'\n"
+                        + "    definitionsDir 'specs'\n"
+                        + settings
+                        + "}\n";
+
+        Files.write(buildFile.toPath(), buildFileContent.getBytes(UTF_8));
+    }
+
+    private GradleRunner executeTask() {
+        return GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(SYNC_TASK, "--stacktrace", "--configuration-cache");
+    }
+}
@@ -35,10 +35,15 @@ import static com.github.tomakehurst.wiremock.client.WireMock.created;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToIgnoreCase;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.serviceUnavailable;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 
 import java.io.File;
@@ -83,6 +88,9 @@ public class SwaggerHubUploadTest {
     private final String serverPort = "8089";
     private final String token = "dUmMyTokEn.1234abc";
     private String swagger;
+    private boolean skipIfUnchanged;
+    private boolean compress;
+    private boolean canonicalize;
 
     @Before
     public void setup() throws IOException {
@@ -187,17 +195,131 @@ public class SwaggerHubUploadTest {
         assertEquals(SUCCESS, runBuild(request));
     }
 
-    private TaskOutcome runBuild(final SwaggerHubRequest request) throws IOException {
-        createBuildFile(request);
+    @Test
+    public void skipsUnchangedDefinition() throws Exception {
+        copyInputFile(testInputAPI, testProjectDir.getRoot());
+        inputFile = getInputFilePath(testInputAPI);
+        swagger = Files.readString(inputFile, StandardCharsets.UTF_8);
+        skipIfUnchanged = true;
+
+        SwaggerHubRequest request =
+                SwaggerHubRequest.builder()
+                        .api(api)
+                        .owner(owner)
+                        .version(version)
+                        .swagger(swagger)
+                        .build();
+
+        UrlPathPattern url = setupServerMocking(request, serverPort, token);
+        assertEquals(SUCCESS, runBuild(request));
+        assertEquals(UP_TO_DATE, runBuild(request));
+
+        // only the line endings differ, so the normalized hash is unchanged
+        Files.writeString(inputFile, swagger.replace("\n", "\r\n"), StandardCharsets.UTF_8);
+        BuildResult result = executeBuild(request);
+        assertEquals(SUCCESS, result.task(":" + UPLOAD_TASK).getOutcome());
+        assertThat(result.getOutput(), containsString("unchanged since the last upload"));
+
+        WireMock.verify(1, postRequestedFor(url));
+    }
 
-        BuildResult result =
-                GradleRunner.create()
-                        .withPluginClasspath()
-                        .withProjectDir(testProjectDir.getRoot())
-                        .withArguments(UPLOAD_TASK, "--stacktrace")
+    @Test
+    public void compressesUploadedDefinition() throws Exception {
+        copyInputFile(testInputAPI, testProjectDir.getRoot());
+        inputFile = getInputFilePath(testInputAPI);
+        swagger = Files.readString(inputFile, StandardCharsets.UTF_8);
+        compress = true;
+
+        SwaggerHubRequest request =
+                SwaggerHubRequest.builder()
+                        .api(api)
+                        .owner(owner)
+                        .version(version)
+                        .swagger(swagger)
                         .build();
 
-        return result.task(":" + UPLOAD_TASK).getOutcome();
+        UrlPathPattern url = setupServerMocking(request, serverPort, token);
+        assertEquals(SUCCESS, runBuild(request));
+
+        WireMock.verify(postRequestedFor(url).withHeader("Content-Encoding", equalTo("gzip")));
+    }
+
+    @Test
+    public void uploadsCanonicalDefinition() throws Exception {
+        inputFile = getInputFilePath("canonical.json");
+        Files.writeString(
+                inputFile,
+                "{\n  \"swagger\": \"2.0\",\n  \"info\": {\n    \"version\": \"1.0\",\n"
+                        + "    \"title\": \"Canonical\"\n  },\n  \"paths\": {}\n}\n",
+                StandardCharsets.UTF_8);
+        canonicalize = true;
+        skipIfUnchanged = true;
+
+        SwaggerHubRequest request =
+                SwaggerHubRequest.builder()
+                        .api(api)
+                        .owner(owner)
+                        .version(version)
+                        .swagger(
+                                "{\"info\":{\"title\":\"Canonical\",\"version\":\"1.0\"},"
+                                        + "\"paths\":{},\"swagger\":\"2.0\"}")
+                        .build();
+
+        UrlPathPattern url = setupServerMocking(request, serverPort, token);
+        assertEquals(SUCCESS, runBuild(request));
+
+        // other key order and indentation, same canonical form
+        Files.writeString(
+                inputFile,
+                "{\"paths\": {}, \"info\": {\"title\": \"Canonical\", \"version\": \"1.0\"},"
+                        + " \"swagger\": \"2.0\"}",
+                StandardCharsets.UTF_8);
+        BuildResult result = executeBuild(request);
+        assertThat(result.getOutput(), containsString("unchanged since the last upload"));
+
+        WireMock.verify(1, postRequestedFor(url));
+    }
+
+    @Test
+    public void doesNotRetryRejectedUpload() throws Exception {
+        copyInputFile(testInputAPI, testProjectDir.getRoot());
+        inputFile = getInputFilePath(testInputAPI);
+        swagger = Files.readString(inputFile, StandardCharsets.UTF_8);
+
+        SwaggerHubRequest request =
+                SwaggerHubRequest.builder()
+                        .api(api)
+                        .owner(owner)
+                        .version(version)
+                        .swagger(swagger)
+                        .build();
+
+        UrlPathPattern url = setupServerMocking(request, serverPort, token);
+        stubFor(post(url).atPriority(1).willReturn(serviceUnavailable()));
+        createBuildFile(request);
+
+        GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(UPLOAD_TASK, "--stacktrace", "--configuration-cache")
+                .buildAndFail();
+
+        // a POST that reached SwaggerHub is never repeated
+        WireMock.verify(1, postRequestedFor(url));
+    }
+
+    private TaskOutcome runBuild(final SwaggerHubRequest request) throws IOException {
+        return executeBuild(request).task(":" + UPLOAD_TASK).getOutcome();
+    }
+
+    private BuildResult executeBuild(final SwaggerHubRequest request) throws IOException {
+        createBuildFile(request);
+
+        return GradleRunner.create()
+                .withPluginClasspath()
+                .withProjectDir(testProjectDir.getRoot())
+                .withArguments(UPLOAD_TASK, "--stacktrace", "--configuration-cache")
+                .build();
     }
 
     private void createBuildFile(final SwaggerHubRequest request) throws IOException {
@@ -226,6 +348,9 @@ public class SwaggerHubUploadTest {
                         + "'\n"
                         + getFormatSetting(request.getFormat())
                         + getIsPrivateSetting(Boolean.TRUE.equals(request.getIsPrivate()))
+                        + (skipIfUnchanged ? "    skipIfUnchanged true\n" : "")
+                        + (compress ? "    compress true\n" : "")
+                        + (canonicalize ? "    canonicalize true\n" : "")
                         + "    inputFile '"
                         + filePath
                         + "'\n"
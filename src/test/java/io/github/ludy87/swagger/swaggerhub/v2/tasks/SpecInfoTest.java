@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Ludy87
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ludy87.swagger.swaggerhub.v2.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+@SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:JavadocVariable"})
+public class SpecInfoTest {
+
+    @Test
+    public void readsTopLevelInfoOfJson() throws IOException {
+        SpecInfo info =
+                SpecInfo.parse(
+                        "{\"components\": {\"schemas\": {\"Pet\": {\"properties\":"
+                                + " {\"info\": {\"title\": \"nested\", \"openapi\": \"x\"}}}}},"
+                                + " \"openapi\": \"3.0.1\","
+                                + " \"info\": {\"x-logo\": {\"title\": \"logo\"},"
+                                + " \"title\": \"Pet \\\"Store\\\"\", \"version\": \"1.0.0\"}}",
+                        false);
+
+        assertEquals("Pet \"Store\"", info.getTitle());
+        assertEquals("1.0.0", info.getVersion());
+        assertEquals("3.0.1", info.getOas());
+    }
+
+    @Test
+    public void readsFlowStyleYamlInfo() throws IOException {
+        SpecInfo info =
+                SpecInfo.parse("swagger: '2.0'\ninfo: {title: Pets, version: 1.10}\n", true);
+
+        assertEquals("Pets", info.getTitle());
+        assertEquals("1.10", info.getVersion());
+        assertEquals("2.0", info.getOas());
+    }
+
+    @Test
+    public void ignoresCommentsAndFoldsBlockScalarsInYaml() throws IOException {
+        SpecInfo info =
+                SpecInfo.parse(
+                        "openapi: 3.0.0 # spec\n"
+                                + "info:\n"
+                                + "  x-logo:\n"
+                                + "    title: logo\n"
+                                + "  title: >-\n"
+                                + "    Pet\n"
+                                + "    Store\n"
+                                + "  version: 1.0.0 # released\n",
+                        true);
+
+        assertEquals("Pet Store", info.getTitle());
+        assertEquals("1.0.0", info.getVersion());
+        assertEquals("3.0.0", info.getOas());
+    }
+
+    @Test
+    public void leavesMissingFieldsEmpty() throws IOException {
+        SpecInfo info = SpecInfo.parse("paths: {}\ninfo:\n  description: none\n", true);
+
+        assertNull(info.getTitle());
+        assertNull(info.getVersion());
+        assertNull(info.getOas());
+    }
+}